@@ -0,0 +1,116 @@
+package com.reactivespring.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/* One HdrHistogram per operation, latencies in microseconds measured from the intended start of each call */
+public class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final LongAdder dropped = new LongAdder();
+
+    public LatencyRecorder() {
+        for (var operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public void record(Operation operation, long latencyNanos, boolean success) {
+        recorders.get(operation).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    /* a call that could not even be started because max-in-flight was reached */
+    public void drop() {
+        dropped.increment();
+    }
+
+    public Report report(Duration elapsed) {
+        var histograms = new EnumMap<Operation, Histogram>(Operation.class);
+        var errorCounts = new EnumMap<Operation, Long>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        errors.forEach((operation, count) -> errorCounts.put(operation, count.sum()));
+        return new Report(histograms, errorCounts, dropped.sum(), elapsed);
+    }
+
+    public static class Report {
+
+        private final Map<Operation, Histogram> histograms;
+        private final Map<Operation, Long> errors;
+        private final long dropped;
+        private final Duration elapsed;
+
+        Report(Map<Operation, Histogram> histograms, Map<Operation, Long> errors, long dropped, Duration elapsed) {
+            this.histograms = histograms;
+            this.errors = errors;
+            this.dropped = dropped;
+            this.elapsed = elapsed;
+        }
+
+        public void print(PrintStream out) {
+            var seconds = elapsed.toMillis() / 1000.0;
+            var total = new Histogram(HIGHEST_TRACKABLE, 3);
+            long totalErrors = 0;
+
+            out.printf("%-14s %9s %8s %10s %9s %9s %9s %9s %9s%n",
+                    "operation", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (var entry : histograms.entrySet()) {
+                var histogram = entry.getValue();
+                if (histogram.getTotalCount() == 0) {
+                    continue;
+                }
+                total.add(histogram);
+                totalErrors += errors.get(entry.getKey());
+                printRow(out, entry.getKey().getKey(), histogram, errors.get(entry.getKey()), seconds);
+            }
+            printRow(out, "total", total, totalErrors, seconds);
+            out.printf("dropped (max-in-flight reached): %d%n", dropped);
+        }
+
+        /* summary.csv plus one percentile distribution per operation, to compare runs side by side */
+        public void write(Path directory, String configuration) throws IOException {
+            Files.createDirectories(directory);
+            try (var summary = new PrintStream(Files.newOutputStream(directory.resolve("summary.csv")))) {
+                summary.println("# " + configuration);
+                summary.println("operation,count,errors,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+                for (var entry : histograms.entrySet()) {
+                    var histogram = entry.getValue();
+                    summary.printf("%s,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f%n", entry.getKey().getKey(),
+                            histogram.getTotalCount(), errors.get(entry.getKey()),
+                            millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+                            millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+                    try (var hgrm = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey().getKey() + ".hgrm")))) {
+                        histogram.outputPercentileDistribution(hgrm, 1000.0);
+                    }
+                }
+            }
+        }
+
+        private static void printRow(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+            out.printf("%-14s %9d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    name, histogram.getTotalCount(), errors, histogram.getTotalCount() / seconds,
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+                    millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.reactivespring.loadtest;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/* Open model: calls start at a fixed arrival rate whether or not earlier calls have finished */
+/* Latency is taken from the intended start, so a slow service can not hide its queueing delay from the report */
+public class LoadGenerator {
+
+    private static final Duration TICK = Duration.ofMillis(1);
+
+    private final MovieApiClient client;
+    private final int rate;
+    private final int maxInFlight;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    public LoadGenerator(MovieApiClient client, int rate, int maxInFlight, Map<Operation, Integer> mix) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be positive");
+        }
+        this.client = client;
+        this.rate = rate;
+        this.maxInFlight = maxInFlight;
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        var sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += mix.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    public Mono<Void> run(Duration duration, LatencyRecorder recorder) {
+        var periodNanos = 1_000_000_000L / rate;
+        var durationNanos = duration.toNanos();
+        var totalCalls = durationNanos / periodNanos;
+        return Mono.defer(() -> {
+            var start = System.nanoTime();
+            /* only touched from the serialized interval ticks */
+            var issued = new long[1];
+            return Flux.interval(TICK)
+                    .map(tick -> System.nanoTime())
+                    .takeWhile(now -> issued[0] < totalCalls)
+                    .concatMapIterable(now -> {
+                        var due = Math.min(totalCalls, (now - start) / periodNanos + 1);
+                        List<Long> intendedStarts = new ArrayList<>();
+                        for (; issued[0] < due; issued[0]++) {
+                            intendedStarts.add(start + issued[0] * periodNanos);
+                        }
+                        return intendedStarts;
+                    })
+                    .onBackpressureDrop(intendedStart -> recorder.drop())
+                    .flatMap(intendedStart -> call(pick(), intendedStart, recorder), maxInFlight)
+                    .then();
+        });
+    }
+
+    private Mono<Void> call(Operation operation, long intendedStart, LatencyRecorder recorder) {
+        return client.execute(operation)
+                .map(status -> status >= 200 && status < 300)
+                .onErrorReturn(false)
+                .doOnNext(success -> recorder.record(operation, System.nanoTime() - intendedStart, success))
+                .then();
+    }
+
+    private Operation pick() {
+        var value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+}
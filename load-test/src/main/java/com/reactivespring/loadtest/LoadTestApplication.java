@@ -0,0 +1,65 @@
+package com.reactivespring.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/* ./gradlew :load-test:loadTest, see LoadTestConfig for the loadtest.* settings */
+public class LoadTestApplication {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestApplication.class);
+
+    private static final int SEED_CONCURRENCY = 32;
+    private static final int SEED_REVIEWS_PER_MOVIE = 2;
+
+    public static void main(String[] args) throws Exception {
+        var config = LoadTestConfig.fromSystemProperties();
+        log.info("load test: {}", config);
+
+        try (var client = new MovieApiClient(config);
+             var launcher = new StackLauncher(config)) {
+            if (config.isLaunch()) {
+                launcher.start(client);
+            }
+
+            seed(client, config.getSeedMovies());
+
+            var generator = new LoadGenerator(client, config.getRate(), config.getMaxInFlight(), config.getMix());
+            log.info("warming up for {}", config.getWarmup());
+            generator.run(config.getWarmup(), new LatencyRecorder()).block();
+
+            log.info("measuring for {}", config.getDuration());
+            var recorder = new LatencyRecorder();
+            var started = System.nanoTime();
+            generator.run(config.getDuration(), recorder).block();
+            var report = recorder.report(Duration.ofNanos(System.nanoTime() - started));
+
+            report.print(System.out);
+            var runDirectory = config.getReportDirectory()
+                    .resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+            report.write(runDirectory, config.toString());
+            log.info("report written to {}", runDirectory.toAbsolutePath());
+        }
+    }
+
+    /* every operation except createInfo needs existing movies */
+    private static void seed(MovieApiClient client, int movies) {
+        Flux.range(0, movies)
+                .flatMap(i -> client.createMovieInfo(), SEED_CONCURRENCY)
+                .blockLast();
+        var movieIds = client.movieIds();
+        if (movieIds.isEmpty()) {
+            throw new IllegalStateException("Seeding failed, no movie info could be created");
+        }
+        var reviewableMovieIds = client.reviewableMovieIds();
+        Flux.fromIterable(reviewableMovieIds)
+                .flatMap(movieId -> Flux.range(0, SEED_REVIEWS_PER_MOVIE)
+                        .concatMap(i -> client.createReview(movieId)), SEED_CONCURRENCY)
+                .blockLast();
+        log.info("seeded {} movies, {} of them with {} reviews each", movieIds.size(), reviewableMovieIds.size(), SEED_REVIEWS_PER_MOVIE);
+    }
+}
@@ -0,0 +1,183 @@
+package com.reactivespring.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/* Everything is read from loadtest.* system properties, the defaults run a one minute mixed load */
+public class LoadTestConfig {
+
+    private final int rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Map<Operation, Integer> mix;
+    private final int seedMovies;
+    private final int generatedIdPercent;
+    private final int maxConnections;
+    private final int maxInFlight;
+    private final Duration responseTimeout;
+    private final URI infoUrl;
+    private final URI reviewsUrl;
+    private final URI moviesUrl;
+    private final boolean launch;
+    private final int mongoPort;
+    private final Map<String, String> jars;
+    private final Map<String, List<String>> serviceArgs;
+    private final Path reportDirectory;
+
+    private LoadTestConfig() {
+        this.rate = Integer.parseInt(property("rate", "100"));
+        this.warmup = duration(property("warmup", "10s"));
+        this.duration = duration(property("duration", "60s"));
+        this.mix = mix(property("mix", "createInfo=1,getInfo=6,updateInfo=1,createReview=1,getReviews=2,getMovie=4"));
+        this.seedMovies = Integer.parseInt(property("seed-movies", "200"));
+        /* share of created movies that get a generated ObjectId like ordinary clients, the rest numeric ids that can be reviewed */
+        this.generatedIdPercent = Integer.parseInt(property("generated-id-percent", "50"));
+        this.maxConnections = Integer.parseInt(property("max-connections", "500"));
+        this.maxInFlight = Integer.parseInt(property("max-in-flight", "5000"));
+        this.responseTimeout = duration(property("response-timeout", "10s"));
+        this.infoUrl = URI.create(property("info-url", "http://localhost:8080"));
+        this.reviewsUrl = URI.create(property("reviews-url", "http://localhost:8081"));
+        this.moviesUrl = URI.create(property("movies-url", "http://localhost:8082"));
+        /* false drives services that are already running */
+        this.launch = Boolean.parseBoolean(property("launch", "true"));
+        this.mongoPort = Integer.parseInt(property("mongo-port", "27018"));
+        this.jars = Map.of(
+                "info", property("jar.info", ""),
+                "reviews", property("jar.reviews", ""),
+                "movies", property("jar.movies", ""));
+        /* extra spring arguments per service, e.g. -Dloadtest.args.info="--movieinfo.mongo.pool.max-size=20" */
+        this.serviceArgs = Map.of(
+                "info", arguments(property("args.info", "")),
+                "reviews", arguments(property("args.reviews", "")),
+                "movies", arguments(property("args.movies", "")));
+        this.reportDirectory = Path.of(property("report-dir", "build/reports/loadtest"));
+    }
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig();
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Map<Operation, Integer> getMix() {
+        return mix;
+    }
+
+    public int getSeedMovies() {
+        return seedMovies;
+    }
+
+    public int getGeneratedIdPercent() {
+        return generatedIdPercent;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public Duration getResponseTimeout() {
+        return responseTimeout;
+    }
+
+    public URI getInfoUrl() {
+        return infoUrl;
+    }
+
+    public URI getReviewsUrl() {
+        return reviewsUrl;
+    }
+
+    public URI getMoviesUrl() {
+        return moviesUrl;
+    }
+
+    public boolean isLaunch() {
+        return launch;
+    }
+
+    public int getMongoPort() {
+        return mongoPort;
+    }
+
+    public String getJar(String service) {
+        return jars.get(service);
+    }
+
+    public List<String> getServiceArgs(String service) {
+        return serviceArgs.get(service);
+    }
+
+    public Path getReportDirectory() {
+        return reportDirectory;
+    }
+
+    @Override
+    public String toString() {
+        return "rate=" + rate + "/s warmup=" + warmup + " duration=" + duration + " mix=" + mix
+                + " generatedIdPercent=" + generatedIdPercent
+                + " maxConnections=" + maxConnections + " maxInFlight=" + maxInFlight + " serviceArgs=" + serviceArgs;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    /* 500ms, 30s or 2m */
+    static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        throw new IllegalArgumentException("Unsupported duration: " + value);
+    }
+
+    /* operation=weight pairs, operations that are left out are not run */
+    static Map<Operation, Integer> mix(String value) {
+        var mix = new EnumMap<Operation, Integer>(Operation.class);
+        for (var entry : value.split(",")) {
+            var parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Unsupported mix entry: " + entry);
+            }
+            var weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.fromKey(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one operation");
+        }
+        return mix;
+    }
+
+    private static List<String> arguments(String value) {
+        return Arrays.stream(value.trim().split("\\s+"))
+                .filter(argument -> !argument.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,168 @@
+package com.reactivespring.loadtest;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/* Issues the calls behind each Operation and keeps track of the movie ids it created */
+public class MovieApiClient implements AutoCloseable {
+
+    private static final Pattern MOVIE_INFO_ID = Pattern.compile("\"movieInfoId\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final LoadTestConfig config;
+    private final ConnectionProvider connectionProvider;
+    private final HttpClient httpClient;
+    /* review-service only takes numeric movieInfoIds, movies with a generated ObjectId can not be reviewed */
+    private final AtomicLong nextMovieId = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final List<String> movieIds = new ArrayList<>();
+    private final List<String> reviewableMovieIds = new ArrayList<>();
+
+    public MovieApiClient(LoadTestConfig config) {
+        this.config = config;
+        this.connectionProvider = ConnectionProvider.builder("load-test")
+                .maxConnections(config.getMaxConnections())
+                .pendingAcquireMaxCount(config.getMaxInFlight())
+                .build();
+        this.httpClient = HttpClient.create(connectionProvider)
+                .responseTimeout(config.getResponseTimeout());
+    }
+
+    /* completes with the response status, transport failures are errors */
+    public Mono<Integer> execute(Operation operation) {
+        switch (operation) {
+            case CREATE_INFO:
+                return createMovieInfo();
+            case GET_INFO:
+                return get(config.getInfoUrl() + "/v1/movieInfo/" + randomMovieId());
+            case UPDATE_INFO:
+                var movieId = randomMovieId();
+                return send("PUT", config.getInfoUrl() + "/v1/movieInfo/" + movieId, movieInfoJson(movieId));
+            case CREATE_REVIEW:
+                return send("POST", config.getReviewsUrl() + "/v1/reviews", reviewJson(randomReviewableMovieId()));
+            case GET_REVIEWS:
+                return get(config.getReviewsUrl() + "/v1/reviews?movieInfoId=" + randomReviewableMovieId());
+            case GET_MOVIE:
+                return get(config.getMoviesUrl() + "/v1/movies/" + randomMovieId());
+            default:
+                return Mono.error(new IllegalArgumentException("Unknown operation: " + operation));
+        }
+    }
+
+    public Mono<Integer> createMovieInfo() {
+        if (ThreadLocalRandom.current().nextInt(100) < config.getGeneratedIdPercent()) {
+            return createMovieInfoWithGeneratedId();
+        }
+        var movieId = String.valueOf(nextMovieId.incrementAndGet());
+        return send("POST", config.getInfoUrl() + "/v1/movieInfo", movieInfoJson(movieId))
+                .doOnNext(status -> {
+                    if (status == 201) {
+                        synchronized (movieIds) {
+                            movieIds.add(movieId);
+                            reviewableMovieIds.add(movieId);
+                        }
+                    }
+                });
+    }
+
+    /* the way ordinary clients create movies, the id is read back from the response */
+    private Mono<Integer> createMovieInfoWithGeneratedId() {
+        return httpClient
+                .headers(headers -> headers
+                        .set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                        .set(HttpHeaderNames.ACCEPT, HttpHeaderValues.APPLICATION_JSON))
+                .post()
+                .uri(config.getInfoUrl() + "/v1/movieInfo")
+                .send(ByteBufFlux.fromString(Mono.just(movieInfoJson(null))))
+                .responseSingle((response, body) -> body.asString()
+                        .defaultIfEmpty("")
+                        .map(json -> {
+                            var matcher = MOVIE_INFO_ID.matcher(json);
+                            if (response.status().code() == 201 && matcher.find()) {
+                                synchronized (movieIds) {
+                                    movieIds.add(matcher.group(1));
+                                }
+                            }
+                            return response.status().code();
+                        }));
+    }
+
+    public Mono<Integer> createReview(String movieId) {
+        return send("POST", config.getReviewsUrl() + "/v1/reviews", reviewJson(movieId));
+    }
+
+    public List<String> movieIds() {
+        synchronized (movieIds) {
+            return List.copyOf(movieIds);
+        }
+    }
+
+    public List<String> reviewableMovieIds() {
+        synchronized (movieIds) {
+            return List.copyOf(reviewableMovieIds);
+        }
+    }
+
+    /* waits for a 200 from the actuator health endpoint */
+    public Mono<Integer> health(String baseUrl) {
+        return get(baseUrl + "/actuator/health");
+    }
+
+    @Override
+    public void close() {
+        connectionProvider.dispose();
+    }
+
+    private Mono<Integer> get(String url) {
+        return httpClient
+                .get()
+                .uri(url)
+                .responseSingle((response, body) -> body.then(Mono.just(response.status().code())));
+    }
+
+    private Mono<Integer> send(String method, String url, String json) {
+        return httpClient
+                .headers(headers -> headers.set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON))
+                .request(HttpMethod.valueOf(method))
+                .uri(url)
+                .send(ByteBufFlux.fromString(Mono.just(json)))
+                .responseSingle((response, body) -> body.then(Mono.just(response.status().code())));
+    }
+
+    private String randomMovieId() {
+        synchronized (movieIds) {
+            return movieIds.get(ThreadLocalRandom.current().nextInt(movieIds.size()));
+        }
+    }
+
+    /* falls back to any movie when every one has a generated id, the review calls then measure the 400 path */
+    private String randomReviewableMovieId() {
+        synchronized (movieIds) {
+            var ids = reviewableMovieIds.isEmpty() ? movieIds : reviewableMovieIds;
+            return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+    }
+
+    /* a null movieId leaves the id to mongodb */
+    private static String movieInfoJson(String movieId) {
+        var year = 1950 + ThreadLocalRandom.current().nextInt(75);
+        var name = movieId == null ? String.valueOf(ThreadLocalRandom.current().nextInt(1_000_000)) : movieId;
+        return "{" + (movieId == null ? "" : "\"movieInfoId\":\"" + movieId + "\",") + "\"name\":\"Movie " + name + "\",\"year\":" + year
+                + ",\"cast\":[\"Actor " + ThreadLocalRandom.current().nextInt(1000) + "\",\"Actor "
+                + ThreadLocalRandom.current().nextInt(1000) + "\"],\"releaseDate\":\"" + year + "-06-15\"}";
+    }
+
+    private static String reviewJson(String movieId) {
+        var rating = ThreadLocalRandom.current().nextInt(0, 101) / 10.0;
+        return "{\"movieInfoId\":" + movieId + ",\"comment\":\"Review of " + movieId + "\",\"rating\":" + rating + "}";
+    }
+}
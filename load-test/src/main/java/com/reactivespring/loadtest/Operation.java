@@ -0,0 +1,30 @@
+package com.reactivespring.loadtest;
+
+import java.util.Arrays;
+
+public enum Operation {
+
+    CREATE_INFO("createInfo"),
+    GET_INFO("getInfo"),
+    UPDATE_INFO("updateInfo"),
+    CREATE_REVIEW("createReview"),
+    GET_REVIEWS("getReviews"),
+    GET_MOVIE("getMovie");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation: " + key));
+    }
+}
@@ -0,0 +1,117 @@
+package com.reactivespring.loadtest;
+
+import de.flapdoodle.embed.mongo.MongodExecutable;
+import de.flapdoodle.embed.mongo.MongodProcess;
+import de.flapdoodle.embed.mongo.MongodStarter;
+import de.flapdoodle.embed.mongo.config.MongodConfig;
+import de.flapdoodle.embed.mongo.config.Net;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.process.runtime.Network;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/* Starts an embedded mongodb and the three service jars against it, and tears all of it down again */
+public class StackLauncher implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(StackLauncher.class);
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final LoadTestConfig config;
+    private final List<Process> services = new ArrayList<>();
+    private MongodExecutable mongodExecutable;
+    private MongodProcess mongodProcess;
+
+    public StackLauncher(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public void start(MovieApiClient client) throws IOException {
+        var mongodConfig = MongodConfig.builder()
+                .version(Version.Main.V4_0)
+                .net(new Net(config.getMongoPort(), Network.localhostIsIPv6()))
+                .build();
+        mongodExecutable = MongodStarter.getDefaultInstance().prepare(mongodConfig);
+        mongodProcess = mongodExecutable.start();
+        log.info("embedded mongodb listening on {}", config.getMongoPort());
+
+        /* movies-service talks to the other two on the urls the generator uses */
+        startService("info", config.getInfoUrl(), List.of(
+                "--spring.data.mongodb.port=" + config.getMongoPort(),
+                "--spring.data.mongodb.database=loadtest"));
+        startService("reviews", config.getReviewsUrl(), List.of(
+                "--spring.data.mongodb.port=" + config.getMongoPort(),
+                "--spring.data.mongodb.database=loadtest"));
+        startService("movies", config.getMoviesUrl(), List.of(
+                "--restclient.moviesInfoUrl=" + config.getInfoUrl() + "/v1/movieInfo",
+                "--restclient.reviewsUrl=" + config.getReviewsUrl() + "/v1/reviews"));
+
+        Flux.just(config.getInfoUrl(), config.getReviewsUrl(), config.getMoviesUrl())
+                .concatMap(url -> awaitHealthy(client, url))
+                .blockLast(STARTUP_TIMEOUT);
+        log.info("all services are up");
+    }
+
+    @Override
+    public void close() {
+        for (var service : services) {
+            service.destroy();
+            try {
+                if (!service.waitFor(10, TimeUnit.SECONDS)) {
+                    service.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                service.destroyForcibly();
+            }
+        }
+        if (mongodProcess != null) {
+            mongodProcess.stop();
+        }
+        if (mongodExecutable != null) {
+            mongodExecutable.stop();
+        }
+    }
+
+    private void startService(String service, URI url, List<String> arguments) throws IOException {
+        var jar = config.getJar(service);
+        if (jar.isEmpty()) {
+            throw new IllegalStateException("No jar for " + service + ", set loadtest.jar." + service + " or run the loadTest gradle task");
+        }
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-jar");
+        command.add(jar);
+        command.add("--server.port=" + url.getPort());
+        command.addAll(arguments);
+        /* last, so they can override the arguments above */
+        command.addAll(config.getServiceArgs(service));
+
+        Files.createDirectories(config.getReportDirectory());
+        var logFile = config.getReportDirectory().resolve(service + ".log").toFile();
+        log.info("starting {}: {}", service, command);
+        services.add(new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile)
+                .start());
+    }
+
+    private static Mono<Integer> awaitHealthy(MovieApiClient client, URI url) {
+        return Mono.defer(() -> client.health(url.toString()))
+                .filter(status -> status == 200)
+                .repeatWhenEmpty(repeat -> repeat.delayElements(Duration.ofMillis(500)))
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, Duration.ofMillis(500)));
+    }
+}
@@ -0,0 +1,73 @@
+package com.reactivespring.benchmark;
+
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.validation.MovieInfoValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import javax.validation.Validation;
+import javax.validation.ValidatorFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/* bean validation walks the constraint metadata of MovieInfo on every call, the precompiled validator is a few null and blank checks */
+/* both feed the same Errors the @Valid path hands to GlobalErrorHandler */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MovieInfoValidationBenchmark {
+
+    @Param({"valid", "invalid"})
+    String payload;
+
+    MovieInfo movieInfo;
+    ValidatorFactory validatorFactory;
+    SpringValidatorAdapter beanValidator;
+    MovieInfoValidator movieInfoValidator;
+
+    @Setup
+    public void setUp() {
+        movieInfo = payload.equals("valid")
+                ? new MovieInfo(null, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane", "Liam Neeson"), LocalDate.parse("2005-06-15"))
+                : new MovieInfo(null, "", -1, List.of("Christian Bale", " ", "Liam Neeson"), LocalDate.parse("2005-06-15"));
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        beanValidator = new SpringValidatorAdapter(validatorFactory.getValidator());
+        movieInfoValidator = new MovieInfoValidator();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Errors beanValidation() {
+        var errors = new BeanPropertyBindingResult(movieInfo, "movieInfo");
+        beanValidator.validate(movieInfo, errors);
+        return errors;
+    }
+
+    @Benchmark
+    public Errors precompiled() {
+        var errors = new BeanPropertyBindingResult(movieInfo, "movieInfo");
+        movieInfoValidator.validate(movieInfo, errors);
+        return errors;
+    }
+
+    /* what the bulk ingest path uses, no Errors object at all */
+    @Benchmark
+    public List<String> precompiledViolations() {
+        return movieInfoValidator.violations(movieInfo);
+    }
+}
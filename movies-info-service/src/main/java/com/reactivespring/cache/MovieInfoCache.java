@@ -0,0 +1,48 @@
+package com.reactivespring.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.reactivespring.domain.MovieInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/* Bounded read-through cache for MovieInfo documents keyed by movieInfoId */
+/* Concurrent misses for the same id share the one in-flight lookup */
+@Component
+public class MovieInfoCache {
+
+    private final AsyncCache<String, MovieInfo> cache;
+
+    public MovieInfoCache(@Value("${movieinfo.cache.maximum-size:10000}") long maximumSize,
+                          @Value("${movieinfo.cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /* an empty loader result is not cached, so unknown ids keep going to the loader */
+    public Mono<MovieInfo> get(String id, Function<String, Mono<MovieInfo>> loader) {
+        return Mono.fromFuture(() -> cache.get(id, (key, executor) -> loader.apply(key).toFuture()));
+    }
+
+    public void invalidate(String id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    public MovieInfoCacheStats stats() {
+        var stats = cache.synchronous().stats();
+        return new MovieInfoCacheStats(
+                cache.synchronous().estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate()
+        );
+    }
+}
@@ -0,0 +1,146 @@
+package com.reactivespring.config;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableConfigurationProperties(MovieInfoMongoProperties.class)
+public class MongoConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer movieInfoMongoClientCustomizer(MovieInfoMongoProperties properties) {
+        var pool = properties.getPool();
+        return builder -> builder
+                .writeConcern(writeConcern(properties.getWriteConcern().getDefaultConcern()))
+                .applyToConnectionPoolSettings(settings -> settings
+                        .minSize(pool.getMinSize())
+                        .maxSize(pool.getMaxSize())
+                        .maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(pool.getMaxConnectionIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionLifeTime(pool.getMaxConnectionLifeTime().toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    /* size, checked out and wait queue gauges come from spring boot's mongo pool metrics, this adds how long */
+    /* requests wait for a connection and the checkouts that failed */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer movieInfoPoolMetricsCustomizer(MeterRegistry meterRegistry) {
+        ConnectionPoolListener listener = new ConnectionPoolListener() {
+            /* the driver's events carry no request id, waits are paired with checkouts in order per server */
+            private final Map<ServerId, Queue<Long>> waitStarts = new ConcurrentHashMap<>();
+
+            @Override
+            public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+                waitStarts.computeIfAbsent(event.getServerId(), serverId -> new ConcurrentLinkedQueue<>())
+                        .add(System.nanoTime());
+            }
+
+            @Override
+            public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+                recordWait(event.getConnectionId().getServerId(), "checkedout");
+            }
+
+            @Override
+            public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+                recordWait(event.getServerId(), "failed");
+                meterRegistry.counter("mongodb.driver.pool.checkoutfailed",
+                        "server.address", event.getServerId().getAddress().toString(),
+                        "reason", event.getReason().name())
+                        .increment();
+            }
+
+            private void recordWait(ServerId serverId, String outcome) {
+                var starts = waitStarts.get(serverId);
+                var started = starts == null ? null : starts.poll();
+                if (started == null) {
+                    return;
+                }
+                Timer.builder("mongodb.driver.pool.checkout.wait")
+                        .description("time a request waited for a pooled connection")
+                        .tag("server.address", serverId.getAddress().toString())
+                        .tag("outcome", outcome)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        };
+        return builder -> builder.applyToConnectionPoolSettings(settings -> settings.addConnectionPoolListener(listener));
+    }
+
+    @Bean
+    public WriteConcernResolver movieInfoWriteConcernResolver(MovieInfoMongoProperties properties) {
+        var writeConcern = properties.getWriteConcern();
+        return action -> {
+            String name;
+            switch (action.getMongoActionOperation()) {
+                case INSERT:
+                case INSERT_LIST:
+                case SAVE:
+                    name = writeConcern.getInsert();
+                    break;
+                case UPDATE:
+                    name = writeConcern.getUpdate();
+                    break;
+                case REMOVE:
+                    name = writeConcern.getRemove();
+                    break;
+                case BULK:
+                    name = writeConcern.getBulk();
+                    break;
+                default:
+                    name = null;
+            }
+            return name == null ? action.getDefaultWriteConcern() : writeConcern(name);
+        };
+    }
+
+    private static WriteConcern writeConcern(String name) {
+        var writeConcern = WriteConcern.valueOf(name);
+        if (writeConcern == null) {
+            throw new IllegalArgumentException("Unknown write concern: " + name);
+        }
+        return writeConcern;
+    }
+
+    /* replaces the auto-configured template so every write goes through the resolver above */
+    @Bean
+    @Primary
+    public ReactiveMongoTemplate reactiveMongoTemplate(ReactiveMongoDatabaseFactory reactiveMongoDatabaseFactory,
+                                                       MongoConverter converter,
+                                                       WriteConcernResolver movieInfoWriteConcernResolver) {
+        var template = new ReactiveMongoTemplate(reactiveMongoDatabaseFactory, converter);
+        template.setWriteConcernResolver(movieInfoWriteConcernResolver);
+        return template;
+    }
+
+    /* the listing and search reads, the only ones that may leave the primary, everything else */
+    /* reads its own writes through the primary template */
+    @Bean
+    public ReactiveMongoTemplate listingMongoTemplate(ReactiveMongoDatabaseFactory reactiveMongoDatabaseFactory,
+                                                      MongoConverter converter,
+                                                      MovieInfoMongoProperties properties) {
+        var template = new ReactiveMongoTemplate(reactiveMongoDatabaseFactory, converter);
+        template.setReadPreference(ReadPreference.valueOf(properties.getReadPreference()));
+        return template;
+    }
+}
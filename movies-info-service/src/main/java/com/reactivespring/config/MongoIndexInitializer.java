@@ -0,0 +1,79 @@
+package com.reactivespring.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/* Creates the indexes declared with @Indexed and @CompoundIndex on the documents before the server accepts traffic */
+/* and checks them against the live collection, as spring data does not do it by default */
+/* The annotations are the only place indexes are defined, this class just applies whatever they resolve to */
+@Component
+@Slf4j
+public class MongoIndexInitializer {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final Duration timeout;
+
+    public MongoIndexInitializer(ReactiveMongoTemplate mongoTemplate,
+                                 @Value("${movieinfo.indexes.timeout:30s}") Duration timeout) {
+        this.mongoTemplate = mongoTemplate;
+        this.timeout = timeout;
+    }
+
+    @PostConstruct
+    public void ensureIndexes() {
+        /* every @Document is registered with the mapping context at startup */
+        Flux.fromIterable(mongoTemplate.getConverter().getMappingContext().getPersistentEntities())
+                .filter(entity -> entity.isAnnotationPresent(Document.class))
+                .map(MongoPersistentEntity::getType)
+                .concatMap(this::ensureIndexes)
+                .then()
+                .block(timeout);
+    }
+
+    private Mono<Void> ensureIndexes(Class<?> documentType) {
+        var resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        List<IndexDefinition> definitions = StreamSupport
+                .stream(resolver.resolveIndexFor(documentType).spliterator(), false)
+                .collect(Collectors.toList());
+        Set<String> expected = definitions.stream()
+                .map(definition -> (String) definition.getIndexOptions().get("name"))
+                .collect(Collectors.toSet());
+        var indexOps = mongoTemplate.indexOps(documentType);
+
+        return Flux.fromIterable(definitions)
+                .concatMap(definition -> indexOps.ensureIndex(definition)
+                        .onErrorResume(ex -> {
+                            log.error("Could not create index {} on {}: {}", definition.getIndexKeys(), documentType.getSimpleName(), ex.getMessage());
+                            return Mono.empty();
+                        }))
+                .thenMany(indexOps.getIndexInfo())
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet())
+                .doOnNext(live -> {
+                    var missing = expected.stream()
+                            .filter(name -> !live.contains(name))
+                            .collect(Collectors.toSet());
+                    if (!missing.isEmpty()) {
+                        throw new IllegalStateException("Missing indexes on " + documentType.getSimpleName() + ": " + missing);
+                    }
+                    log.info("Indexes on {}: {}", documentType.getSimpleName(), live);
+                })
+                .then();
+    }
+}
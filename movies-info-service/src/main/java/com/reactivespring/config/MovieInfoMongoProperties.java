@@ -0,0 +1,42 @@
+package com.reactivespring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/* Driver tuning for the MovieInfo database, applied by MongoConfig */
+@Data
+@ConfigurationProperties(prefix = "movieinfo.mongo")
+public class MovieInfoMongoProperties {
+
+    private Pool pool = new Pool();
+
+    /* applies to the listing and search reads only, e.g. secondaryPreferred to take them off the primary */
+    private String readPreference = "primary";
+
+    private WriteConcerns writeConcern = new WriteConcerns();
+
+    @Data
+    public static class Pool {
+        private int minSize = 0;
+        private int maxSize = 100;
+        /* how long a request may wait for a free connection before it fails */
+        private Duration maxWaitTime = Duration.ofSeconds(2);
+        /* non-zero on purpose, the driver default of zero keeps idle connections forever */
+        private Duration maxConnectionIdleTime = Duration.ofMinutes(1);
+        /* zero means no limit */
+        private Duration maxConnectionLifeTime = Duration.ZERO;
+    }
+
+    /* names understood by WriteConcern.valueOf, e.g. acknowledged, w1, majority */
+    @Data
+    public static class WriteConcerns {
+        /* client default, also used by the findAndModify based PUT and PATCH */
+        private String defaultConcern = "acknowledged";
+        private String insert;
+        private String update;
+        private String remove;
+        private String bulk;
+    }
+}
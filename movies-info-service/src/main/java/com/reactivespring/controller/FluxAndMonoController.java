@@ -1,7 +1,11 @@
 package com.reactivespring.controller;
 
+import com.reactivespring.streaming.SseStreams;
+import com.reactivespring.util.SignalLogging;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -11,21 +15,35 @@ import java.time.Duration;
 @RestController
 public class FluxAndMonoController {
 
+    SseStreams sseStreams;
+
+    public FluxAndMonoController(SseStreams sseStreams) {
+        this.sseStreams = sseStreams;
+    }
+
     @GetMapping("/flux")
     public Flux<Integer> flux() {
         return Flux.just(1, 2, 3, 4, 5)
-                .log();
+                .transform(SignalLogging.sampled("flux", 1));
     }
 
     @GetMapping("/mono")
     public Mono<String> mono() {
         return Mono.just("Hello bitches!")
-                .log();
+                .transform(SignalLogging.sampledMono("mono", 1));
     }
 
+    /* a reconnecting client carries on after the last tick it saw */
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<Long> stream() {
+    public Flux<ServerSentEvent<Long>> stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return sseStreams.stream("ticks", lastEventId, this::ticks)
+                .transform(SignalLogging.sampled("stream", 10));
+    }
+
+    private Flux<ServerSentEvent<Long>> ticks(String lastEventId) {
+        long start = lastEventId == null || !lastEventId.matches("\\d{1,18}") ? 0 : Long.parseLong(lastEventId) + 1;
         return Flux.interval(Duration.ofSeconds(2))
-                .log();
+                .map(tick -> start + tick)
+                .map(tick -> ServerSentEvent.builder(tick).id(String.valueOf(tick)).build());
     }
 }
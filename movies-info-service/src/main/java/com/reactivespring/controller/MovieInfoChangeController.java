@@ -0,0 +1,45 @@
+package com.reactivespring.controller;
+
+import com.reactivespring.domain.MovieInfoEvent;
+import com.reactivespring.service.MovieInfoChangeFeed;
+import com.reactivespring.streaming.OverflowPolicy;
+import com.reactivespring.streaming.SseStreams;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/* Live feed of inserts, updates and deletes on MovieInfo */
+/* Consumers invalidate caches from these events, so a client that falls behind is disconnected and resumes */
+/* from its last event instead of silently skipping some */
+@RestController
+@RequestMapping("/v1")
+public class MovieInfoChangeController {
+
+    MovieInfoChangeFeed movieInfoChangeFeed;
+    SseStreams sseStreams;
+
+    public MovieInfoChangeController(MovieInfoChangeFeed movieInfoChangeFeed, SseStreams sseStreams) {
+        this.movieInfoChangeFeed = movieInfoChangeFeed;
+        this.sseStreams = sseStreams;
+    }
+
+    /* browsers resend the id of the last event they saw as Last-Event-ID when reconnecting */
+    @GetMapping(value = "/movieInfo/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<MovieInfoEvent>> streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return sseStreams.stream("changes", lastEventId, resumeToken -> movieInfoChangeFeed.events(resumeToken)
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(event.getResumeToken())
+                        .event(event.getType())
+                        .build()), OverflowPolicy.DISCONNECT);
+    }
+
+    @GetMapping(value = "/movieInfo/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MovieInfoEvent> getChanges(@RequestParam(value = "resumeToken", required = false) String resumeToken) {
+        return sseStreams.bounded("changes", movieInfoChangeFeed.events(resumeToken), OverflowPolicy.DISCONNECT);
+    }
+}
@@ -1,13 +1,21 @@
 package com.reactivespring.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework. http.HttpStatus;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Flux;
+import com.reactivespring.cache.MovieInfoCacheStats;
 import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieInfoIngestFailure;
+import com.reactivespring.domain.MovieInfoPage;
+import com.reactivespring.domain.MovieInfoView;
+import com.reactivespring.service.MovieInfoIngestService;
 import com.reactivespring.service.MovieInfoService;
+import com.reactivespring.validation.MovieInfoValidator;
+import org.springframework.web.bind.WebDataBinder;
 
 import javax.validation.Valid;
 
@@ -16,9 +24,22 @@ import javax.validation.Valid;
 public class MovieInfoController {
 
     MovieInfoService movieInfoService;
+    MovieInfoIngestService movieInfoIngestService;
+    MovieInfoValidator movieInfoValidator;
 
-    public MovieInfoController(MovieInfoService movieInfoService) {
+    public MovieInfoController(MovieInfoService movieInfoService, MovieInfoIngestService movieInfoIngestService,
+                               MovieInfoValidator movieInfoValidator) {
         this.movieInfoService = movieInfoService;
+        this.movieInfoIngestService = movieInfoIngestService;
+        this.movieInfoValidator = movieInfoValidator;
+    }
+
+    /* @Valid MovieInfo bodies go through the precompiled checks instead of bean validation */
+    @InitBinder
+    public void initBinder(WebDataBinder binder) {
+        if (binder.getTarget() instanceof MovieInfo) {
+            binder.setValidator(movieInfoValidator);
+        }
     }
 
     @PostMapping("/movieInfo")
@@ -27,19 +48,57 @@ public class MovieInfoController {
         return movieInfoService.addMovieInfo(movieInfo);
     }
 
+    /* streaming upload, responds with one line per record that could not be stored */
+    @PostMapping(value = "/movieInfo/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MovieInfoIngestFailure> addMovieInfos(@RequestBody Flux<String> lines) {
+        /* read as lines and decoded one by one, so a malformed record does not end the upload */
+        return movieInfoIngestService.addMovieInfos(lines);
+    }
+
     @GetMapping("/movieInfo")
     public Flux<MovieInfo> getAllMovieInfos(@RequestParam(value = "year", required = false) Integer year,
-                                            @RequestParam(value = "name", required = false) String name) {
-        if(year != null) {
-            return  movieInfoService.getMovieInfoByYear(year);
-        }
-        if(name != null) {
-            return movieInfoService.getMovieInfoByName(name);
+                                            @RequestParam(value = "name", required = false) String name,
+                                            @RequestParam(value = "cast", required = false) String cast) {
+        if(year != null || name != null || cast != null) {
+            return movieInfoService.getMovieInfos(year, name, cast);
         }
 
         return movieInfoService.getAllMovieInfos();
     }
 
+    /* listing narrowed to the comma separated fields, e.g. fields=movieInfoId,name,year */
+    @GetMapping(value = "/movieInfo", params = "fields")
+    public Flux<MovieInfoView> getMovieInfoViews(@RequestParam(value = "year", required = false) Integer year,
+                                                 @RequestParam(value = "name", required = false) String name,
+                                                 @RequestParam(value = "cast", required = false) String cast,
+                                                 @RequestParam("fields") String fields) {
+        return movieInfoService.getMovieInfoViews(year, name, cast, fields);
+    }
+
+    /* newline delimited json, every document is flushed as soon as the cursor hands it over */
+    @GetMapping(value = "/movieInfo/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MovieInfo> streamAllMovieInfos() {
+        return movieInfoService.streamAllMovieInfos();
+    }
+
+    @GetMapping("/movieInfo/page")
+    public Mono<MovieInfoPage> getMovieInfoPage(@RequestParam(value = "pageToken", required = false) String pageToken,
+                                                @RequestParam(value = "size", required = false) Integer size) {
+        return movieInfoService.getMovieInfoPage(pageToken, size);
+    }
+
+    /* typeahead: every word of q matches the start of a word in the name or the cast */
+    @GetMapping("/movieInfo/search")
+    public Flux<MovieInfo> searchMovieInfos(@RequestParam("q") String query,
+                                            @RequestParam(value = "limit", required = false) Integer limit) {
+        return movieInfoService.searchMovieInfos(query, limit);
+    }
+
+    @GetMapping("/movieInfo/cache/stats")
+    public Mono<MovieInfoCacheStats> getCacheStats() {
+        return movieInfoService.getCacheStats();
+    }
+
     @GetMapping("/movieInfo/{id}")
     public Mono<ResponseEntity<MovieInfo>> getMovieInfoById(@PathVariable String id) {
         return movieInfoService.getMovieInfoById(id)
@@ -54,6 +113,14 @@ public class MovieInfoController {
                 .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
     }
 
+    /* only the fields present in the body are changed, pass version to guard against concurrent edits */
+    @PatchMapping("/movieInfo/{id}")
+    public Mono<ResponseEntity<MovieInfo>> patchMovieInfo(@PathVariable String id, @RequestBody MovieInfo changes) {
+        return movieInfoService.patchMovieInfo(id, changes)
+                .map(ResponseEntity.ok()::body)
+                .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
+    }
+
     @DeleteMapping("/movieInfo/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public Mono<Void> deleteMovieInfo(@PathVariable String id) {
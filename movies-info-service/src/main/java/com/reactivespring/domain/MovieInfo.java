@@ -4,6 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.validation.constraints.NotBlank;
@@ -17,15 +20,24 @@ import java.time.LocalDate;
 @NoArgsConstructor // lombok
 @AllArgsConstructor // lombok
 @Document // indicates MongoDB entry
+@CompoundIndex(name = "year_name", def = "{'year': 1, 'name': 1}") // serves year and year + name filters
 public class MovieInfo {
 
     @Id // initiates movieInfoId as primary key
     private String movieInfoId;
     @NotBlank(message = "movieInfo.name must be present")
+    @Indexed(name = "name")
     private String name;
     @NotNull
     @Positive(message = "movieInfo.year must be a positive value")
     private Integer year;
+    @Indexed(name = "cast") // multikey index, matches any cast member
     private List<@NotBlank(message = "movieInfo.cast must be present") String> cast;
     private LocalDate releaseDate;
+    @Version // optimistic locking, incremented on every write
+    private Long version;
+
+    public MovieInfo(String movieInfoId, String name, Integer year, List<String> cast, LocalDate releaseDate) {
+        this(movieInfoId, name, year, cast, releaseDate, null);
+    }
 }
@@ -0,0 +1,22 @@
+package com.reactivespring.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieInfoEvent {
+
+    /* insert, update, replace or delete */
+    private String type;
+    private String movieInfoId;
+    /* the document after the change, null for deletes */
+    private MovieInfo movieInfo;
+    /* pass it back as Last-Event-ID or resumeToken to continue after this event */
+    private String resumeToken;
+    @JsonIgnore
+    private long sequence;
+}
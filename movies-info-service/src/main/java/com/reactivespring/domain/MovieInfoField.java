@@ -0,0 +1,52 @@
+package com.reactivespring.domain;
+
+import com.reactivespring.exception.InvalidFieldsException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/* MovieInfo properties a listing can be narrowed to with fields= */
+public enum MovieInfoField {
+
+    MOVIE_INFO_ID("movieInfoId"),
+    NAME("name"),
+    YEAR("year"),
+    CAST("cast"),
+    RELEASE_DATE("releaseDate"),
+    VERSION("version");
+
+    private final String property;
+
+    MovieInfoField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /* comma separated property names, e.g. "movieInfoId,name,year" */
+    public static Set<MovieInfoField> parse(String fields) {
+        var selected = EnumSet.noneOf(MovieInfoField.class);
+        for (var name : fields.split(",")) {
+            var property = name.trim();
+            if (property.isEmpty()) {
+                continue;
+            }
+            selected.add(Arrays.stream(values())
+                    .filter(field -> field.property.equals(property))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidFieldsException("fields: unknown field " + property + ", expected any of " + names())));
+        }
+        if (selected.isEmpty()) {
+            throw new InvalidFieldsException("fields must name at least one of " + names());
+        }
+        return selected;
+    }
+
+    private static String names() {
+        return Arrays.stream(values()).map(field -> field.property).collect(Collectors.joining(","));
+    }
+}
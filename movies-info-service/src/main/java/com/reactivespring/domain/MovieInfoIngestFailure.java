@@ -0,0 +1,16 @@
+package com.reactivespring.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieInfoIngestFailure {
+
+    /* position of the record in the uploaded stream, starting at 0 */
+    private long index;
+    private String movieInfoId;
+    private String reason;
+}
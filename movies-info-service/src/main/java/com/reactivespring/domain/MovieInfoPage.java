@@ -0,0 +1,17 @@
+package com.reactivespring.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieInfoPage {
+
+    private List<MovieInfo> movieInfos;
+    /* opaque token for the next page, null on the last page */
+    private String nextPageToken;
+}
@@ -0,0 +1,26 @@
+package com.reactivespring.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/* MovieInfo narrowed with fields=, read straight from the projected document, the fields left out stay null */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MovieInfoView {
+
+    @Id
+    private String movieInfoId;
+    private String name;
+    private Integer year;
+    private List<String> cast;
+    private LocalDate releaseDate;
+    private Long version;
+}
@@ -0,0 +1,10 @@
+package com.reactivespring.exception;
+
+public class InvalidPageTokenException extends RuntimeException {
+    private String message;
+
+    public InvalidPageTokenException(String message) {
+        super(message);
+        this.message = message;
+    }
+}
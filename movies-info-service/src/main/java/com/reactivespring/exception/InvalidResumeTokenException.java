@@ -0,0 +1,10 @@
+package com.reactivespring.exception;
+
+public class InvalidResumeTokenException extends RuntimeException {
+    private String message;
+
+    public InvalidResumeTokenException(String message) {
+        super(message);
+        this.message = message;
+    }
+}
@@ -0,0 +1,10 @@
+package com.reactivespring.exception;
+
+public class MovieInfoAlreadyExistsException extends RuntimeException {
+    private String message;
+
+    public MovieInfoAlreadyExistsException(String message) {
+        super(message);
+        this.message = message;
+    }
+}
@@ -0,0 +1,10 @@
+package com.reactivespring.exception;
+
+public class MovieInfoVersionConflictException extends RuntimeException {
+    private String message;
+
+    public MovieInfoVersionConflictException(String message) {
+        super(message);
+        this.message = message;
+    }
+}
@@ -0,0 +1,10 @@
+package com.reactivespring.exception;
+
+public class StreamCapacityExceededException extends RuntimeException {
+    private String message;
+
+    public StreamCapacityExceededException(String message) {
+        super(message);
+        this.message = message;
+    }
+}
@@ -1,7 +1,15 @@
 package com.reactivespring.exceptionHandler;
 
+import com.reactivespring.exception.InvalidFieldsException;
+import com.reactivespring.exception.InvalidPageTokenException;
+import com.reactivespring.exception.InvalidResumeTokenException;
+import com.reactivespring.exception.MovieInfoAlreadyExistsException;
+import com.reactivespring.exception.MovieInfoVersionConflictException;
+import com.reactivespring.exception.StreamCapacityExceededException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -16,7 +24,6 @@ public class GlobalErrorHandler {
 
     @ExceptionHandler(WebExchangeBindException.class)
     public ResponseEntity<String> handleRequestBodyError(WebExchangeBindException exception) {
-      log.error("Exception caught in handleRequestBodyError: {} ", exception.getMessage(), exception);
       var error = exception
               .getBindingResult()
               .getAllErrors()
@@ -24,8 +31,45 @@ public class GlobalErrorHandler {
               .map(DefaultMessageSourceResolvable::getDefaultMessage)
               .sorted()
               .collect(Collectors.joining(","));
-      log.error("Error is: {}", error);
+      /* a rejected body is a client error, the stack trace says nothing the message does not */
+      log.error("Exception caught in handleRequestBodyError: {} ", error);
 
       return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
+
+    @ExceptionHandler(InvalidFieldsException.class)
+    public ResponseEntity<String> handleFieldsError(InvalidFieldsException exception) {
+      log.error("Exception caught in handleFieldsError: {} ", exception.getMessage());
+
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exception.getMessage());
+    }
+
+    @ExceptionHandler({InvalidPageTokenException.class, InvalidResumeTokenException.class})
+    public ResponseEntity<String> handleTokenError(RuntimeException exception) {
+      log.error("Exception caught in handleTokenError: {} ", exception.getMessage());
+
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exception.getMessage());
+    }
+
+    @ExceptionHandler({MovieInfoVersionConflictException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<String> handleVersionConflict(RuntimeException exception) {
+      log.error("Exception caught in handleVersionConflict: {} ", exception.getMessage());
+
+      return ResponseEntity.status(HttpStatus.CONFLICT).body(exception.getMessage());
+    }
+
+    @ExceptionHandler(MovieInfoAlreadyExistsException.class)
+    public ResponseEntity<String> handleAlreadyExists(MovieInfoAlreadyExistsException exception) {
+      log.error("Exception caught in handleAlreadyExists: {} ", exception.getMessage());
+
+      return ResponseEntity.status(HttpStatus.CONFLICT).body(exception.getMessage());
+    }
+
+    /* no body, the event stream encoder cannot write a plain string */
+    @ExceptionHandler(StreamCapacityExceededException.class)
+    public ResponseEntity<Void> handleStreamCapacity(StreamCapacityExceededException exception) {
+      log.warn("Exception caught in handleStreamCapacity: {} ", exception.getMessage());
+
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+    }
 }
@@ -0,0 +1,41 @@
+package com.reactivespring.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieInfoView;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+/* Queries that can not be expressed as derived queries, implemented in MovieInfoRepositoryCustomImpl */
+/* The finders and streamAll are listing reads and use the configured read preference */
+public interface MovieInfoRepositoryCustom {
+
+    /* combines every given filter into one query, null filters are ignored */
+    Flux<MovieInfo> findByFilters(Integer year, String name, String cast);
+
+    /* same filters, only the given properties are read from mongo and mapped straight into the view */
+    Flux<MovieInfoView> findViews(Integer year, String name, String cast, Collection<String> fields);
+
+    /* every movieInfo, fetched in small batches so documents can be flushed while the cursor is still open */
+    Flux<MovieInfo> streamAll();
+
+    /* keyset pagination: the first page when afterMovieInfoId is null, else every page after it */
+    Flux<MovieInfo> findPage(String afterMovieInfoId, Pageable pageable);
+
+    /* generated ids sort after every string id, $gt on a string never reaches them */
+    Flux<MovieInfo> findGeneratedPage(Pageable pageable);
+
+    /* atomic $set of name, year, cast and releaseDate, nulls included */
+    Mono<MovieInfo> replaceFields(String id, MovieInfo movieInfo);
+
+    /* atomic $set of the non null fields only */
+    Mono<MovieInfo> patchFields(String id, MovieInfo changes);
+
+    /* one unordered insertMany, the errors carry the index of the failed document within movieInfos */
+    /* the stored movieInfos are given their id and version */
+    Flux<BulkWriteError> insertAllUnordered(List<MovieInfo> movieInfos);
+}
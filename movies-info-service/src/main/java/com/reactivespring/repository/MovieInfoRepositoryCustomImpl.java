@@ -0,0 +1,179 @@
+package com.reactivespring.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.InsertManyOptions;
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieInfoView;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoAction;
+import org.springframework.data.mongodb.core.MongoActionOperation;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class MovieInfoRepositoryCustomImpl implements MovieInfoRepositoryCustom {
+
+    /* small batches so documents can be flushed while the cursor is still open */
+    private static final int STREAM_BATCH_SIZE = 256;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    /* carries the configured read preference, used by the listing and search reads only */
+    private final ReactiveMongoTemplate listingMongoTemplate;
+    private final WriteConcernResolver writeConcernResolver;
+
+    public MovieInfoRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate,
+                                         @Qualifier("listingMongoTemplate") ReactiveMongoTemplate listingMongoTemplate,
+                                         ObjectProvider<WriteConcernResolver> writeConcernResolver) {
+        this.mongoTemplate = mongoTemplate;
+        this.listingMongoTemplate = listingMongoTemplate;
+        this.writeConcernResolver = writeConcernResolver.getIfAvailable(() -> MongoAction::getDefaultWriteConcern);
+    }
+
+    @Override
+    public Flux<MovieInfo> findByFilters(Integer year, String name, String cast) {
+        return listingMongoTemplate.find(filters(year, name, cast), MovieInfo.class);
+    }
+
+    @Override
+    public Flux<MovieInfoView> findViews(Integer year, String name, String cast, Collection<String> fields) {
+        var query = filters(year, name, cast);
+        fields.forEach(field -> query.fields().include(field));
+        /* _id comes back unless it is excluded explicitly */
+        if (!fields.contains("movieInfoId")) {
+            query.fields().exclude("movieInfoId");
+        }
+        return listingMongoTemplate.query(MovieInfo.class)
+                .as(MovieInfoView.class)
+                .matching(query)
+                .all();
+    }
+
+    /* equality on year and name is served by the year_name index, cast by the multikey cast index */
+    private static Query filters(Integer year, String name, String cast) {
+        var query = new Query();
+        if (year != null) {
+            query.addCriteria(Criteria.where("year").is(year));
+        }
+        if (name != null) {
+            query.addCriteria(Criteria.where("name").is(name));
+        }
+        if (cast != null) {
+            query.addCriteria(Criteria.where("cast").is(cast));
+        }
+        return query;
+    }
+
+    @Override
+    public Flux<MovieInfo> streamAll() {
+        return listingMongoTemplate.find(new Query().cursorBatchSize(STREAM_BATCH_SIZE), MovieInfo.class);
+    }
+
+    @Override
+    public Flux<MovieInfo> findPage(String afterMovieInfoId, Pageable pageable) {
+        var query = afterMovieInfoId == null
+                ? new Query()
+                : Query.query(Criteria.where("movieInfoId").gt(afterMovieInfoId));
+        return listingMongoTemplate.find(query.with(pageable), MovieInfo.class);
+    }
+
+    @Override
+    public Flux<MovieInfo> findGeneratedPage(Pageable pageable) {
+        var query = Query.query(Criteria.where("movieInfoId").type(JsonSchemaObject.Type.OBJECT_ID));
+        return listingMongoTemplate.find(query.with(pageable), MovieInfo.class);
+    }
+
+    @Override
+    public Mono<MovieInfo> replaceFields(String id, MovieInfo movieInfo) {
+        var update = new Update()
+                .set("name", movieInfo.getName())
+                .set("year", movieInfo.getYear())
+                .set("cast", movieInfo.getCast())
+                .set("releaseDate", movieInfo.getReleaseDate());
+        return findAndUpdate(id, movieInfo.getVersion(), update);
+    }
+
+    @Override
+    public Mono<MovieInfo> patchFields(String id, MovieInfo changes) {
+        var update = new Update();
+        if (changes.getName() != null) {
+            update.set("name", changes.getName());
+        }
+        if (changes.getYear() != null) {
+            update.set("year", changes.getYear());
+        }
+        if (changes.getCast() != null) {
+            update.set("cast", changes.getCast());
+        }
+        if (changes.getReleaseDate() != null) {
+            update.set("releaseDate", changes.getReleaseDate());
+        }
+        return findAndUpdate(id, changes.getVersion(), update);
+    }
+
+    /* single findAndModify, the version condition turns a concurrent write into an empty result */
+    private Mono<MovieInfo> findAndUpdate(String id, Long expectedVersion, Update update) {
+        var criteria = Criteria.where("movieInfoId").is(id);
+        if (expectedVersion != null) {
+            criteria = criteria.and("version").is(expectedVersion);
+        }
+        update.inc("version", 1);
+        return mongoTemplate.findAndModify(Query.query(criteria), update,
+                FindAndModifyOptions.options().returnNew(true), MovieInfo.class);
+    }
+
+    @Override
+    public Flux<BulkWriteError> insertAllUnordered(List<MovieInfo> movieInfos) {
+        var documents = movieInfos.stream()
+                .map(movieInfo -> {
+                    var document = new Document();
+                    mongoTemplate.getConverter().write(movieInfo, document);
+                    /* same initial version save() would have written */
+                    document.putIfAbsent("version", 0L);
+                    return document;
+                })
+                .collect(Collectors.toList());
+
+        /* the raw insertMany bypasses the template, so the bulk write concern is looked up here */
+        var collectionName = mongoTemplate.getCollectionName(MovieInfo.class);
+        var writeConcern = writeConcernResolver.resolve(
+                new MongoAction(null, MongoActionOperation.BULK, collectionName, MovieInfo.class, null, null));
+
+        /* unordered: a failing document does not stop the rest of the batch from being written */
+        return mongoTemplate.getCollection(collectionName)
+                .map(collection -> writeConcern == null ? collection : collection.withWriteConcern(writeConcern))
+                .flatMap(collection -> Mono.from(collection.insertMany(documents, new InsertManyOptions().ordered(false))))
+                .then(Mono.just(List.<BulkWriteError>of()))
+                .onErrorResume(MongoBulkWriteException.class, ex -> Mono.just(ex.getWriteErrors()))
+                .doOnNext(writeErrors -> stored(movieInfos, documents, writeErrors))
+                .flatMapMany(Flux::fromIterable);
+    }
+
+    /* the driver generated the missing ids on the documents, the stored movieInfos get them back */
+    private static void stored(List<MovieInfo> movieInfos, List<Document> documents, List<BulkWriteError> writeErrors) {
+        var failed = writeErrors.stream().map(BulkWriteError::getIndex).collect(Collectors.toSet());
+        for (int i = 0; i < movieInfos.size(); i++) {
+            if (failed.contains(i)) {
+                continue;
+            }
+            var id = documents.get(i).get("_id");
+            var movieInfo = movieInfos.get(i);
+            movieInfo.setMovieInfoId(id instanceof ObjectId ? ((ObjectId) id).toHexString() : String.valueOf(id));
+            movieInfo.setVersion(documents.get(i).getLong("version"));
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.reactivespring.search;
+
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.repository.MovieInfoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/* In-memory inverted index over MovieInfo name and cast, answers prefix queries without touching mongo */
+/* Writes through this instance, bulk ingest included, are applied right away. The index is loaded from the */
+/* collection at startup, later rebuilds are only a repair pass for writes made by other instances */
+@Component
+@Slf4j
+public class MovieInfoSearchIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    /* a hit in the name counts more than one in the cast, a whole word more than a prefix */
+    private static final double NAME_EXACT = 3;
+    private static final double NAME_PREFIX = 2;
+    private static final double CAST_EXACT = 1.5;
+    private static final double CAST_PREFIX = 1;
+
+    private final MovieInfoRepository movieInfoRepository;
+    private final Duration rebuildInterval;
+    private final AtomicLong rebuilds = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(0);
+    /* rebuilds still reading the collection, they get the writes made meanwhile too */
+    private final List<Snapshot> building = new CopyOnWriteArrayList<>();
+    private volatile Disposable scheduledRebuilds;
+
+    public MovieInfoSearchIndex(MovieInfoRepository movieInfoRepository,
+                                @Value("${movieinfo.search.rebuild-interval:1h}") Duration rebuildInterval) {
+        this.movieInfoRepository = movieInfoRepository;
+        this.rebuildInterval = rebuildInterval;
+    }
+
+    @PostConstruct
+    public void start() {
+        /* zero only loads the index once */
+        var ticks = rebuildInterval.isZero() ? Flux.just(0L) : Flux.interval(Duration.ZERO, rebuildInterval);
+        scheduledRebuilds = ticks
+                .onBackpressureDrop()
+                .concatMap(tick -> rebuild()
+                        .onErrorResume(ex -> {
+                            log.warn("Search index rebuild failed, keeping the previous index: {}", ex.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduledRebuilds != null) {
+            scheduledRebuilds.dispose();
+        }
+    }
+
+    /* reads the whole collection into a fresh index and swaps it in, a rebuild started later always wins */
+    public Mono<Void> rebuild() {
+        return Mono.defer(() -> {
+            var fresh = new Snapshot(rebuilds.incrementAndGet());
+            building.add(fresh);
+            return movieInfoRepository.streamAll()
+                    .name("movieinfo.repository.streamAll")
+                    .metrics()
+                    .doOnNext(fresh::load)
+                    .then(Mono.fromRunnable(() -> install(fresh)))
+                    .doFinally(signalType -> building.remove(fresh));
+        });
+    }
+
+    private synchronized void install(Snapshot fresh) {
+        building.remove(fresh);
+        fresh.written.clear();
+        if (fresh.generation > snapshot.generation) {
+            snapshot = fresh;
+            log.info("Search index rebuilt with {} movieInfos", fresh.documents.size());
+        }
+    }
+
+    public synchronized void index(MovieInfo movieInfo) {
+        snapshot.write(movieInfo.getMovieInfoId(), movieInfo);
+        building.forEach(fresh -> fresh.write(movieInfo.getMovieInfoId(), movieInfo));
+    }
+
+    public synchronized void indexAll(List<MovieInfo> movieInfos) {
+        movieInfos.forEach(this::index);
+    }
+
+    public synchronized void remove(String movieInfoId) {
+        snapshot.write(movieInfoId, null);
+        building.forEach(fresh -> fresh.write(movieInfoId, null));
+    }
+
+    /* every word of the query has to match the start of a word in the name or the cast */
+    public List<MovieInfo> search(String query, int limit) {
+        var terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        var current = snapshot;
+        Map<String, Double> scores = null;
+        for (var term : terms) {
+            var termScores = current.score(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                var combined = new HashMap<String, Double>();
+                for (var entry : scores.entrySet()) {
+                    var termScore = termScores.get(entry.getKey());
+                    if (termScore != null) {
+                        combined.put(entry.getKey(), entry.getValue() + termScore);
+                    }
+                }
+                scores = combined;
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+        var ranked = scores;
+        /* best score first, then the shorter and alphabetically first name */
+        return ranked.keySet().stream()
+                .map(current.documents::get)
+                .filter(movieInfo -> movieInfo != null)
+                .sorted(Comparator.<MovieInfo>comparingDouble(movieInfo -> -ranked.get(movieInfo.getMovieInfoId()))
+                        .thenComparingInt(movieInfo -> movieInfo.getName() == null ? 0 : movieInfo.getName().length())
+                        .thenComparing(movieInfo -> movieInfo.getName() == null ? "" : movieInfo.getName())
+                        .thenComparing(MovieInfo::getMovieInfoId))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public int size() {
+        return snapshot.documents.size();
+    }
+
+    /* lower case words with accents stripped, so "Beyoncé" is found by "beyon" */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        var folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        var tokens = new ArrayList<String>();
+        for (var token : NON_WORD.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static class Snapshot {
+        private final long generation;
+        private final Map<String, MovieInfo> documents = new ConcurrentHashMap<>();
+        /* token -> movieInfoIds, sorted so a prefix is a contiguous range */
+        private final NavigableMap<String, Set<String>> nameIndex = new ConcurrentSkipListMap<>();
+        private final NavigableMap<String, Set<String>> castIndex = new ConcurrentSkipListMap<>();
+        /* ids written while the collection was being read, the cursor may hand over an older copy */
+        private final Set<String> written = ConcurrentHashMap.newKeySet();
+
+        Snapshot(long generation) {
+            this.generation = generation;
+        }
+
+        synchronized void load(MovieInfo movieInfo) {
+            if (movieInfo.getMovieInfoId() != null && !written.contains(movieInfo.getMovieInfoId())) {
+                add(movieInfo);
+            }
+        }
+
+        /* a null movieInfo deletes */
+        synchronized void write(String id, MovieInfo movieInfo) {
+            if (id == null) {
+                return;
+            }
+            written.add(id);
+            remove(id);
+            if (movieInfo != null) {
+                add(movieInfo);
+            }
+        }
+
+        private void add(MovieInfo movieInfo) {
+            var id = movieInfo.getMovieInfoId();
+            if (id == null) {
+                return;
+            }
+            documents.put(id, movieInfo);
+            tokenize(movieInfo.getName()).forEach(token -> post(nameIndex, token, id));
+            castTokens(movieInfo).forEach(token -> post(castIndex, token, id));
+        }
+
+        private void remove(String id) {
+            var movieInfo = documents.remove(id);
+            if (movieInfo == null) {
+                return;
+            }
+            tokenize(movieInfo.getName()).forEach(token -> unpost(nameIndex, token, id));
+            castTokens(movieInfo).forEach(token -> unpost(castIndex, token, id));
+        }
+
+        /* best score of the term per matching movieInfoId */
+        Map<String, Double> score(String term) {
+            var scores = new HashMap<String, Double>();
+            collect(scores, prefixRange(castIndex, term), CAST_PREFIX);
+            collect(scores, exact(castIndex, term), CAST_EXACT);
+            collect(scores, prefixRange(nameIndex, term), NAME_PREFIX);
+            collect(scores, exact(nameIndex, term), NAME_EXACT);
+            return scores;
+        }
+
+        private static void collect(Map<String, Double> scores, Collection<Set<String>> postings, double score) {
+            for (var ids : postings) {
+                for (var id : ids) {
+                    scores.merge(id, score, Math::max);
+                }
+            }
+        }
+
+        private static Collection<Set<String>> prefixRange(NavigableMap<String, Set<String>> index, String prefix) {
+            return index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        }
+
+        private static Collection<Set<String>> exact(NavigableMap<String, Set<String>> index, String token) {
+            var ids = index.get(token);
+            return ids == null ? List.of() : List.of(ids);
+        }
+
+        private static Set<String> castTokens(MovieInfo movieInfo) {
+            var tokens = new HashSet<String>();
+            if (movieInfo.getCast() != null) {
+                movieInfo.getCast().forEach(member -> tokens.addAll(tokenize(member)));
+            }
+            return tokens;
+        }
+
+        private static void post(NavigableMap<String, Set<String>> index, String token, String id) {
+            index.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+
+        private static void unpost(NavigableMap<String, Set<String>> index, String token, String id) {
+            index.computeIfPresent(token, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+}
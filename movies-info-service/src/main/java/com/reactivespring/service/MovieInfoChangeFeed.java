@@ -0,0 +1,188 @@
+package com.reactivespring.service;
+
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieInfoEvent;
+import com.reactivespring.exception.InvalidResumeTokenException;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/* Tails the change stream of the MovieInfo collection once and fans the events out to every subscriber */
+/* The most recent events are kept so reconnecting clients can resume without opening their own change stream */
+@Service
+@Slf4j
+public class MovieInfoChangeFeed {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final int historySize;
+    private final int bufferSize;
+    private final Sinks.Many<MovieInfoEvent> events;
+    private final Map<String, Long> sequenceByResumeToken;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile BsonValue lastResumeToken;
+    private volatile Disposable upstream;
+
+    public MovieInfoChangeFeed(ReactiveMongoTemplate mongoTemplate,
+                               @Value("${movieinfo.change-feed.history-size:1000}") int historySize,
+                               @Value("${movieinfo.change-feed.buffer-size:256}") int bufferSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.historySize = historySize;
+        this.bufferSize = bufferSize;
+        this.events = Sinks.many().replay().limit(historySize);
+        this.sequenceByResumeToken = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > historySize;
+            }
+        });
+    }
+
+    /* live events, or every event after resumeToken when one is given */
+    public Flux<MovieInfoEvent> events(String resumeToken) {
+        return Flux.defer(() -> {
+                    startUpstream();
+                    if (resumeToken == null) {
+                        long from = sequence.get();
+                        return events.asFlux().filter(event -> event.getSequence() > from);
+                    }
+                    Long from = sequenceByResumeToken.get(resumeToken);
+                    if (from != null) {
+                        return events.asFlux().filter(event -> event.getSequence() > from);
+                    }
+                    /* older than the kept history, e.g. after a restart, only mongo can replay it */
+                    log.info("Resume token is not in the change feed history, replaying from mongo until the shared feed is reached");
+                    return catchUp(decodeResumeToken(resumeToken));
+                })
+                /* a subscriber that falls bufferSize events behind is dropped instead of holding up the others */
+                .onBackpressureBuffer(bufferSize, BufferOverflowStrategy.ERROR);
+    }
+
+    /* a dedicated change stream replays the missed events and is closed on the first event the shared feed */
+    /* also has, from then on the subscriber reads the shared feed after the last event the replay handed over */
+    private Flux<MovieInfoEvent> catchUp(BsonValue resumeToken) {
+        return Flux.defer(() -> {
+            long liveFrom = sequence.get();
+            var lastReplayed = new AtomicReference<String>();
+            /* both streams see the same events in the same order, only the recent replayed ones can meet the shared feed */
+            var replayed = Collections.newSetFromMap(Collections.synchronizedMap(new LinkedHashMap<String, Boolean>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > historySize;
+                }
+            }));
+            /* the shared feed delivered an event this subscriber already got from the replay */
+            var sharedCaughtUp = events.asFlux()
+                    .filter(event -> event.getSequence() > liveFrom && replayed.contains(event.getResumeToken()))
+                    .next();
+            var replay = changeStream(resumeToken)
+                    .map(this::toEvent)
+                    /* the replay reached an event the shared feed already has */
+                    .takeUntil(event -> sequenceByResumeToken.containsKey(event.getResumeToken()))
+                    .takeUntilOther(sharedCaughtUp)
+                    /* only events handed to the subscriber count, the shared feed is bound to reach each of them */
+                    .doOnNext(event -> {
+                        replayed.add(event.getResumeToken());
+                        lastReplayed.set(event.getResumeToken());
+                    });
+            return replay.concatWith(Flux.defer(() -> live(liveFrom, lastReplayed.get())));
+        });
+    }
+
+    /* the shared feed after the last event the subscriber got, which may be further on than the one that ended the replay */
+    private Flux<MovieInfoEvent> live(long liveFrom, String lastEmitted) {
+        var shared = events.asFlux().filter(event -> event.getSequence() > liveFrom);
+        if (lastEmitted == null) {
+            return shared;
+        }
+        Long lastSequence = sequenceByResumeToken.get(lastEmitted);
+        if (lastSequence != null) {
+            return events.asFlux().filter(event -> event.getSequence() > lastSequence);
+        }
+        /* the replay ran ahead of the shared feed, its events are skipped until the shared feed gets there */
+        return shared.skipUntil(event -> lastEmitted.equals(event.getResumeToken())).skip(1);
+    }
+
+    private void startUpstream() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        upstream = Flux.defer(() -> changeStream(lastResumeToken))
+                .doOnNext(changeEvent -> lastResumeToken = changeEvent.getResumeToken())
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("MovieInfo change stream failed, resuming: {}", signal.failure().getMessage())))
+                .map(this::toEvent)
+                .subscribe(event -> {
+                    event.setSequence(sequence.incrementAndGet());
+                    sequenceByResumeToken.put(event.getResumeToken(), event.getSequence());
+                    events.emitNext(event, Sinks.EmitFailureHandler.FAIL_FAST);
+                });
+    }
+
+    private Flux<ChangeStreamEvent<MovieInfo>> changeStream(BsonValue resumeToken) {
+        var options = ChangeStreamOptions.builder().returnFullDocumentOnUpdate();
+        if (resumeToken != null) {
+            options.resumeAfter(resumeToken);
+        }
+        return mongoTemplate.changeStream(mongoTemplate.getCollectionName(MovieInfo.class), options.build(), MovieInfo.class);
+    }
+
+    private MovieInfoEvent toEvent(ChangeStreamEvent<MovieInfo> changeEvent) {
+        var type = changeEvent.getOperationType() == null ? null : changeEvent.getOperationType().getValue();
+        var raw = changeEvent.getRaw();
+        String movieInfoId = null;
+        if (raw != null && raw.getDocumentKey() != null) {
+            var id = raw.getDocumentKey().get("_id");
+            movieInfoId = id.isObjectId() ? id.asObjectId().getValue().toHexString()
+                    : id.isString() ? id.asString().getValue() : id.toString();
+        }
+        return new MovieInfoEvent(type, movieInfoId, changeEvent.getBody(),
+                encodeResumeToken(changeEvent.getResumeToken()), 0);
+    }
+
+    private static String encodeResumeToken(BsonValue resumeToken) {
+        if (resumeToken == null) {
+            return null;
+        }
+        var json = resumeToken.asDocument().toJson();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static BsonValue decodeResumeToken(String resumeToken) {
+        try {
+            var json = new String(Base64.getUrlDecoder().decode(resumeToken), StandardCharsets.UTF_8);
+            return BsonDocument.parse(json);
+        } catch (RuntimeException e) {
+            throw new InvalidResumeTokenException("resumeToken is not valid: " + resumeToken);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (upstream != null) {
+            upstream.dispose();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.reactivespring.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieInfoIngestFailure;
+import com.mongodb.bulk.BulkWriteError;
+import com.reactivespring.repository.MovieInfoRepository;
+import com.reactivespring.search.MovieInfoSearchIndex;
+import com.reactivespring.validation.MovieInfoValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Service
+@Slf4j
+public class MovieInfoIngestService {
+
+    private MovieInfoRepository movieInfoRepository;
+    private MovieInfoValidator validator;
+    private MovieInfoSearchIndex movieInfoSearchIndex;
+    private ObjectMapper objectMapper;
+    private int batchSize;
+    private Duration maxWait;
+    private int concurrency;
+
+    public MovieInfoIngestService(MovieInfoRepository movieInfoRepository,
+                                  MovieInfoValidator validator,
+                                  MovieInfoSearchIndex movieInfoSearchIndex,
+                                  ObjectMapper objectMapper,
+                                  @Value("${movieinfo.bulk.batch-size:500}") int batchSize,
+                                  @Value("${movieinfo.bulk.max-wait:1s}") Duration maxWait,
+                                  @Value("${movieinfo.bulk.concurrency:4}") int concurrency) {
+        this.movieInfoRepository = movieInfoRepository;
+        this.validator = validator;
+        this.movieInfoSearchIndex = movieInfoSearchIndex;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxWait = maxWait;
+        this.concurrency = concurrency;
+    }
+
+    /* one json document per line, only failed records are emitted, an empty stream means everything was written */
+    public Flux<MovieInfoIngestFailure> addMovieInfos(Flux<String> lines) {
+        /* at most concurrency batches are in flight, so the upload is only read as fast as mongo takes it */
+        /* a batch is written once it is full or maxWait after its first record, whichever comes first */
+        return lines
+                .filter(line -> !line.isBlank())
+                .index()
+                .bufferTimeout(batchSize, maxWait)
+                .flatMap(this::writeBatch, concurrency);
+    }
+
+    /* a line that is not a MovieInfo is reported like an invalid one, the rest of the upload carries on */
+    private Flux<MovieInfoIngestFailure> writeBatch(List<Tuple2<Long, String>> batch) {
+        var failures = new ArrayList<MovieInfoIngestFailure>();
+        var valid = new ArrayList<Tuple2<Long, MovieInfo>>(batch.size());
+        for (var line : batch) {
+            MovieInfo movieInfo;
+            try {
+                movieInfo = objectMapper.readValue(line.getT2(), MovieInfo.class);
+            } catch (JsonProcessingException e) {
+                failures.add(new MovieInfoIngestFailure(line.getT1(), null, "Not a valid MovieInfo: " + e.getOriginalMessage()));
+                continue;
+            }
+            var record = Tuples.of(line.getT1(), movieInfo);
+            var error = validate(movieInfo);
+            if (error.isEmpty()) {
+                valid.add(record);
+            } else {
+                failures.add(failure(record, error));
+            }
+        }
+        if (valid.isEmpty()) {
+            return Flux.fromIterable(failures);
+        }
+
+        var documents = valid.stream().map(Tuple2::getT2).collect(Collectors.toList());
+        var writeFailures = movieInfoRepository.insertAllUnordered(documents)
+                .name("movieinfo.repository.insertAllUnordered")
+                .metrics()
+                .collectList()
+                .flatMapMany(writeErrors -> {
+                    /* searchable right away instead of after the next rebuild of the index */
+                    var failed = writeErrors.stream().map(BulkWriteError::getIndex).collect(Collectors.toSet());
+                    movieInfoSearchIndex.indexAll(IntStream.range(0, documents.size())
+                            .filter(i -> !failed.contains(i))
+                            .mapToObj(documents::get)
+                            .collect(Collectors.toList()));
+                    return Flux.fromIterable(writeErrors)
+                            .map(writeError -> failure(valid.get(writeError.getIndex()), writeError.getMessage()));
+                })
+                .onErrorResume(ex -> {
+                    log.error("Bulk write of {} movieInfos failed: {}", valid.size(), ex.getMessage());
+                    return Flux.fromIterable(valid).map(record -> failure(record, ex.getMessage()));
+                });
+
+        return Flux.fromIterable(failures).concatWith(writeFailures);
+    }
+
+    private String validate(MovieInfo movieInfo) {
+        return String.join(",", validator.violations(movieInfo));
+    }
+
+    private static MovieInfoIngestFailure failure(Tuple2<Long, MovieInfo> record, String reason) {
+        return new MovieInfoIngestFailure(record.getT1(), record.getT2().getMovieInfoId(), reason);
+    }
+}
@@ -1,51 +1,198 @@
 package com.reactivespring.service;
 
+import com.reactivespring.cache.MovieInfoCache;
+import com.reactivespring.cache.MovieInfoCacheStats;
 import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieInfoField;
+import com.reactivespring.domain.MovieInfoPage;
+import com.reactivespring.domain.MovieInfoView;
+import com.reactivespring.exception.InvalidPageTokenException;
+import com.reactivespring.exception.MovieInfoAlreadyExistsException;
+import com.reactivespring.exception.MovieInfoVersionConflictException;
 import com.reactivespring.repository.MovieInfoRepository;
+import com.reactivespring.search.MovieInfoSearchIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Flux;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
 @Service
 public class MovieInfoService {
     private MovieInfoRepository movieInfoRepository;
+    private MovieInfoCache movieInfoCache;
+    private int defaultPageSize;
+    private int maxPageSize;
+    private MovieInfoSearchIndex movieInfoSearchIndex;
+    private int defaultSearchLimit;
+    private int maxSearchLimit;
 
-    public MovieInfoService(MovieInfoRepository movieInfoRepository) {
+    public MovieInfoService(MovieInfoRepository movieInfoRepository,
+                            MovieInfoCache movieInfoCache,
+                            @Value("${movieinfo.page.default-size:20}") int defaultPageSize,
+                            @Value("${movieinfo.page.max-size:100}") int maxPageSize,
+                            MovieInfoSearchIndex movieInfoSearchIndex,
+                            @Value("${movieinfo.search.default-limit:10}") int defaultSearchLimit,
+                            @Value("${movieinfo.search.max-limit:50}") int maxSearchLimit) {
         this.movieInfoRepository = movieInfoRepository;
+        this.movieInfoCache = movieInfoCache;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.movieInfoSearchIndex = movieInfoSearchIndex;
+        this.defaultSearchLimit = defaultSearchLimit;
+        this.maxSearchLimit = maxSearchLimit;
     }
 
     public Mono<MovieInfo> addMovieInfo(MovieInfo movieInfo) {
-        return movieInfoRepository.save(movieInfo);
+        return movieInfoRepository.save(movieInfo)
+                .name("movieinfo.repository.save")
+                .metrics()
+                /* without a version save is an insert, an id that is taken fails on the unique _id */
+                .onErrorMap(DuplicateKeyException.class, ex -> new MovieInfoAlreadyExistsException(
+                        "movieInfo " + movieInfo.getMovieInfoId() + " already exists, use PUT to update it"))
+                .doOnNext(movieInfoSearchIndex::index);
+    }
+
+    /* ranked prefix matches on name and cast, served from memory */
+    public Flux<MovieInfo> searchMovieInfos(String query, Integer limit) {
+        int searchLimit = limit == null ? defaultSearchLimit : Math.max(1, Math.min(limit, maxSearchLimit));
+        return Flux.defer(() -> Flux.fromIterable(movieInfoSearchIndex.search(query, searchLimit)))
+                .name("movieinfo.search")
+                .metrics();
     }
 
     public Flux<MovieInfo> getAllMovieInfos() {
-        return movieInfoRepository.findAll();
+        return movieInfoRepository.findByFilters(null, null, null)
+                .name("movieinfo.repository.findAll")
+                .metrics();
+    }
+
+    public Flux<MovieInfo> streamAllMovieInfos() {
+        return movieInfoRepository.streamAll()
+                .name("movieinfo.repository.streamAll")
+                .metrics();
+    }
+
+    public Mono<MovieInfoPage> getMovieInfoPage(String pageToken, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        /* one extra document tells us whether there is a next page without a count query */
+        var pageable = PageRequest.of(0, pageSize + 1, Sort.by("movieInfoId"));
+
+        var movieInfos = pageToken == null
+                ? movieInfoRepository.findPage(null, pageable)
+                : findAfter(decodePageToken(pageToken), pageable);
+
+        return movieInfos
+                .name("movieinfo.repository.findPage")
+                .metrics()
+                .collectList()
+                .map(page -> {
+                    if (page.size() <= pageSize) {
+                        return new MovieInfoPage(page, null);
+                    }
+                    var content = page.subList(0, pageSize);
+                    return new MovieInfoPage(content, encodePageToken(content.get(pageSize - 1).getMovieInfoId()));
+                });
+    }
+
+    /* mongodb compares ids of one BSON type only: ids that are valid ObjectIds are stored as ObjectIds, */
+    /* the others as strings, and all strings sort before all ObjectIds */
+    private Flux<MovieInfo> findAfter(String movieInfoId, Pageable pageable) {
+        var after = movieInfoRepository.findPage(movieInfoId, pageable);
+        if (ObjectId.isValid(movieInfoId)) {
+            return after;
+        }
+        /* the page ended in the string range, once that runs out the ObjectId range follows */
+        return after.collectList()
+                .flatMapMany(strings -> strings.size() >= pageable.getPageSize()
+                        ? Flux.fromIterable(strings)
+                        : Flux.fromIterable(strings).concatWith(movieInfoRepository.findGeneratedPage(
+                                PageRequest.of(0, pageable.getPageSize() - strings.size(), pageable.getSort()))));
     }
 
     public Mono<MovieInfo> getMovieInfoById(String id) {
-        return movieInfoRepository.findById(id);
+        return movieInfoCache.get(id, key -> movieInfoRepository.findById(key)
+                .name("movieinfo.repository.findById")
+                .metrics());
     }
 
-    public Flux<MovieInfo> getMovieInfoByYear(Integer year) {
-        return movieInfoRepository.findByYear(year);
+    public Flux<MovieInfo> getMovieInfos(Integer year, String name, String cast) {
+        return movieInfoRepository.findByFilters(year, name, cast)
+                .name("movieinfo.repository.findByFilters")
+                .metrics();
     }
 
-    public Flux<MovieInfo> getMovieInfoByName(String name) {
-        return movieInfoRepository.findByName(name);
+    /* the projection is pushed into the query, so unselected fields are neither read nor serialized */
+    public Flux<MovieInfoView> getMovieInfoViews(Integer year, String name, String cast, String fields) {
+        return Mono.fromCallable(() -> MovieInfoField.parse(fields))
+                .flatMapMany(selected -> movieInfoRepository
+                        .findViews(year, name, cast, selected.stream().map(MovieInfoField::getProperty).collect(Collectors.toList()))
+                        .name("movieinfo.repository.findProjected")
+                        .metrics());
     }
 
     public Mono<MovieInfo> updateMovieInfo(String id, MovieInfo updatedMovieInfo) {
-        return movieInfoRepository.findById(id)
-                .flatMap(movieInfo -> {
-                    movieInfo.setName(updatedMovieInfo.getName());
-                    movieInfo.setCast(updatedMovieInfo.getCast());
-                    movieInfo.setYear(updatedMovieInfo.getYear());
-                    movieInfo.setReleaseDate(updatedMovieInfo.getReleaseDate());
-                    return movieInfoRepository.save(movieInfo);
-                });
+        return movieInfoRepository.replaceFields(id, updatedMovieInfo)
+                .name("movieinfo.repository.replaceFields")
+                .metrics()
+                .switchIfEmpty(Mono.defer(() -> versionConflict(id, updatedMovieInfo.getVersion())))
+                .doOnNext(movieInfo -> movieInfoCache.invalidate(id))
+                .doOnNext(movieInfoSearchIndex::index);
+    }
+
+    public Mono<MovieInfo> patchMovieInfo(String id, MovieInfo changes) {
+        return movieInfoRepository.patchFields(id, changes)
+                .name("movieinfo.repository.patchFields")
+                .metrics()
+                .switchIfEmpty(Mono.defer(() -> versionConflict(id, changes.getVersion())))
+                .doOnNext(movieInfo -> movieInfoCache.invalidate(id))
+                .doOnNext(movieInfoSearchIndex::index);
+    }
+
+    /* only reached when nothing matched, tells a stale version apart from a missing document */
+    private Mono<MovieInfo> versionConflict(String id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.empty();
+        }
+        return movieInfoRepository.existsById(id)
+                .flatMap(exists -> exists
+                        ? Mono.error(new MovieInfoVersionConflictException("movieInfo " + id + " was modified, version " + expectedVersion + " is stale"))
+                        : Mono.empty());
     }
 
     public Mono<Void> deleteMovieInfo(String id) {
-        return movieInfoRepository.deleteById(id);
+        return movieInfoRepository.deleteById(id)
+                .name("movieinfo.repository.deleteById")
+                .metrics()
+                .doOnSuccess(unused -> {
+                    movieInfoCache.invalidate(id);
+                    movieInfoSearchIndex.remove(id);
+                });
+    }
+
+    public Mono<MovieInfoCacheStats> getCacheStats() {
+        return Mono.fromSupplier(movieInfoCache::stats);
+    }
+
+    private static String encodePageToken(String movieInfoId) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(movieInfoId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodePageToken(String pageToken) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageTokenException("pageToken is not valid: " + pageToken);
+        }
     }
 }
@@ -0,0 +1,11 @@
+package com.reactivespring.streaming;
+
+/* What a stream does once a client has fallen buffer-size events behind */
+public enum OverflowPolicy {
+    /* drop the oldest buffered event, the client skips ahead */
+    DROP_OLDEST,
+    /* keep only the newest event, for streams where just the current value matters */
+    LATEST,
+    /* close the stream, the client reconnects with Last-Event-ID and resumes */
+    DISCONNECT
+}
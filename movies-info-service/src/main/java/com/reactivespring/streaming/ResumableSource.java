@@ -0,0 +1,11 @@
+package com.reactivespring.streaming;
+
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+/* The events of a stream, starting after lastEventId when the client sent one */
+@FunctionalInterface
+public interface ResumableSource<T> {
+
+    Flux<ServerSentEvent<T>> from(String lastEventId);
+}
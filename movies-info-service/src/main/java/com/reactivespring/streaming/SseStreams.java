@@ -0,0 +1,155 @@
+package com.reactivespring.streaming;
+
+import com.reactivespring.exception.StreamCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* Server-sent event streams with a bounded buffer per connection, heartbeats and a cap on open streams */
+/* A slow client holds at most buffer-size + 2 * MERGE_PREFETCH events here (buffer + 2 with LATEST), */
+/* past that it loses events or is cut off */
+@Component
+@Slf4j
+public class SseStreams {
+
+    /* publish and the merge with the heartbeats each hold up to this many events on top of the buffer */
+    private static final int MERGE_PREFETCH = 8;
+
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+    private final Duration heartbeat;
+    private final int maxSubscribers;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final Map<String, StreamMeters> meters = new ConcurrentHashMap<>();
+
+    public SseStreams(@Value("${movieinfo.streaming.buffer-size:256}") int bufferSize,
+                      @Value("${movieinfo.streaming.overflow:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+                      @Value("${movieinfo.streaming.heartbeat:15s}") Duration heartbeat,
+                      @Value("${movieinfo.streaming.max-subscribers:10000}") int maxSubscribers,
+                      ObjectProvider<MeterRegistry> meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+        this.heartbeat = heartbeat;
+        this.maxSubscribers = maxSubscribers;
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        Gauge.builder("movieinfo.stream.subscribers", subscribers, AtomicInteger::get)
+                .description("open server-sent event streams")
+                .register(this.meterRegistry);
+    }
+
+    public <T> Flux<ServerSentEvent<T>> stream(String name, String lastEventId, ResumableSource<T> source) {
+        return stream(name, lastEventId, source, overflowPolicy);
+    }
+
+    public <T> Flux<ServerSentEvent<T>> stream(String name, String lastEventId, ResumableSource<T> source,
+                                               OverflowPolicy policy) {
+        var events = bounded(name, Flux.defer(() -> source.from(lastEventId)), policy);
+        /* comments keep proxies from closing idle connections and tell the client the stream is alive */
+        var heartbeats = Flux.interval(heartbeat, heartbeat)
+                .map(tick -> ServerSentEvent.<T>builder().comment("heartbeat").build())
+                .onBackpressureDrop();
+        /* LATEST must not queue stale events behind the one kept in the buffer */
+        int prefetch = policy == OverflowPolicy.LATEST ? 1 : MERGE_PREFETCH;
+        return events.publish(shared -> Flux.merge(prefetch, shared,
+                heartbeats.takeUntilOther(shared.then(Mono.just(Boolean.TRUE)))), prefetch);
+    }
+
+    /* the same cap, buffer and metrics for streams that can not carry heartbeats, e.g. newline delimited json */
+    public <T> Flux<T> bounded(String name, Flux<T> source) {
+        return bounded(name, source, overflowPolicy);
+    }
+
+    public <T> Flux<T> bounded(String name, Flux<T> source, OverflowPolicy policy) {
+        var streamMeters = meters.computeIfAbsent(name, StreamMeters::new);
+        return Flux.defer(() -> {
+            if (subscribers.incrementAndGet() > maxSubscribers) {
+                subscribers.decrementAndGet();
+                streamMeters.rejected.increment();
+                return Flux.error(new StreamCapacityExceededException("Too many open streams, retry later"));
+            }
+            /* events taken from the source and not yet handed to the connection */
+            var lag = new AtomicLong();
+            return source
+                    .doOnNext(event -> {
+                        lag.incrementAndGet();
+                        streamMeters.lag.incrementAndGet();
+                    })
+                    .transform(flux -> overflow(flux, policy, lag, streamMeters))
+                    .doOnNext(event -> {
+                        lag.decrementAndGet();
+                        streamMeters.lag.decrementAndGet();
+                    })
+                    .onErrorResume(Exceptions::isOverflow, ex -> {
+                        log.info("Closing {} stream of a client that fell {} events behind", name, lag.get());
+                        streamMeters.evicted.increment();
+                        return Flux.empty();
+                    })
+                    .doFinally(signalType -> {
+                        subscribers.decrementAndGet();
+                        streamMeters.lag.addAndGet(-lag.get());
+                    });
+        });
+    }
+
+    private <T> Flux<T> overflow(Flux<T> events, OverflowPolicy policy, AtomicLong lag, StreamMeters streamMeters) {
+        switch (policy) {
+            case DROP_OLDEST:
+                return events.onBackpressureBuffer(bufferSize, dropped -> dropped(lag, streamMeters), BufferOverflowStrategy.DROP_OLDEST);
+            case LATEST:
+                return events.onBackpressureBuffer(1, dropped -> dropped(lag, streamMeters), BufferOverflowStrategy.DROP_OLDEST);
+            case DISCONNECT:
+                return events.onBackpressureBuffer(bufferSize, BufferOverflowStrategy.ERROR);
+            default:
+                throw new IllegalArgumentException("Unknown overflow policy: " + policy);
+        }
+    }
+
+    private static void dropped(AtomicLong lag, StreamMeters streamMeters) {
+        lag.decrementAndGet();
+        streamMeters.lag.decrementAndGet();
+        streamMeters.dropped.increment();
+    }
+
+    private class StreamMeters {
+        private final AtomicLong lag = new AtomicLong();
+        private final Counter dropped;
+        private final Counter evicted;
+        private final Counter rejected;
+
+        StreamMeters(String name) {
+            Gauge.builder("movieinfo.stream.lag", lag, AtomicLong::get)
+                    .description("events buffered for clients that have not read them yet")
+                    .tag("stream", name)
+                    .register(meterRegistry);
+            this.dropped = Counter.builder("movieinfo.stream.dropped")
+                    .description("events dropped for clients that fell behind")
+                    .tag("stream", name)
+                    .register(meterRegistry);
+            this.evicted = Counter.builder("movieinfo.stream.evicted")
+                    .description("streams closed because the client fell behind")
+                    .tag("stream", name)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("movieinfo.stream.rejected")
+                    .description("streams refused because max-subscribers was reached")
+                    .tag("stream", name)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.reactivespring.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/* Replacement for .log() on hot paths: logs at DEBUG only, and only every sampleRate-th onNext */
+/* Off by default, switch it on at runtime with POST /actuator/loggers/reactive.signals.<category> */
+public final class SignalLogging {
+
+    private static final String CATEGORY_PREFIX = "reactive.signals.";
+
+    private SignalLogging() {
+    }
+
+    public static <T> Function<Flux<T>, Flux<T>> sampled(String category, int sampleRate) {
+        var log = LoggerFactory.getLogger(CATEGORY_PREFIX + category);
+        var counter = new AtomicLong();
+        return flux -> flux.doOnEach(signal -> logSignal(log, signal, counter, sampleRate));
+    }
+
+    public static <T> Function<Mono<T>, Mono<T>> sampledMono(String category, int sampleRate) {
+        var log = LoggerFactory.getLogger(CATEGORY_PREFIX + category);
+        var counter = new AtomicLong();
+        return mono -> mono.doOnEach(signal -> logSignal(log, signal, counter, sampleRate));
+    }
+
+    private static <T> void logSignal(Logger log, Signal<T> signal, AtomicLong counter, int sampleRate) {
+        if (!log.isDebugEnabled()) {
+            return;
+        }
+        if (signal.isOnNext()) {
+            if (counter.getAndIncrement() % sampleRate == 0) {
+                log.debug("onNext({})", signal.get());
+            }
+        } else if (signal.isOnError()) {
+            log.debug("onError({})", signal.getThrowable().toString());
+        } else {
+            log.debug("{}", signal.getType());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.reactivespring.validation;
+
+import com.reactivespring.domain.MovieInfo;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/* The constraints declared on MovieInfo written out as plain checks, no metadata lookup or reflection per call */
+/* Messages are the ones of the annotations, keep both in sync when a constraint changes */
+@Component
+public class MovieInfoValidator implements Validator {
+
+    static final String NAME_MISSING = "movieInfo.name must be present";
+    static final String YEAR_MISSING = "must not be null";
+    static final String YEAR_NOT_POSITIVE = "movieInfo.year must be a positive value";
+    static final String CAST_MISSING = "movieInfo.cast must be present";
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return MovieInfo.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        var movieInfo = (MovieInfo) target;
+        if (isBlank(movieInfo.getName())) {
+            errors.rejectValue("name", "NotBlank", NAME_MISSING);
+        }
+        if (movieInfo.getYear() == null) {
+            errors.rejectValue("year", "NotNull", YEAR_MISSING);
+        } else if (movieInfo.getYear() <= 0) {
+            errors.rejectValue("year", "Positive", YEAR_NOT_POSITIVE);
+        }
+        var cast = movieInfo.getCast();
+        if (cast != null) {
+            for (int i = 0; i < cast.size(); i++) {
+                if (isBlank(cast.get(i))) {
+                    errors.rejectValue("cast[" + i + "]", "NotBlank", CAST_MISSING);
+                }
+            }
+        }
+    }
+
+    /* sorted messages, empty when the movie info is valid */
+    public List<String> violations(MovieInfo movieInfo) {
+        List<String> violations = null;
+        if (isBlank(movieInfo.getName())) {
+            violations = add(violations, NAME_MISSING);
+        }
+        if (movieInfo.getYear() == null) {
+            violations = add(violations, YEAR_MISSING);
+        } else if (movieInfo.getYear() <= 0) {
+            violations = add(violations, YEAR_NOT_POSITIVE);
+        }
+        var cast = movieInfo.getCast();
+        if (cast != null) {
+            for (var member : cast) {
+                if (isBlank(member)) {
+                    violations = add(violations, CAST_MISSING);
+                }
+            }
+        }
+        if (violations == null) {
+            return Collections.emptyList();
+        }
+        Collections.sort(violations);
+        return violations;
+    }
+
+    /* same rule as @NotBlank, trim() strips every character up to and including the space */
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /* the valid path allocates nothing */
+    private static List<String> add(List<String> violations, String violation) {
+        var list = violations == null ? new ArrayList<String>(2) : violations;
+        list.add(violation);
+        return list;
+    }
+}
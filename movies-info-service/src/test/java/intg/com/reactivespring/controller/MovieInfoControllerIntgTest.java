@@ -1,21 +1,34 @@
 package com.reactivespring.controller;
 
+import com.reactivespring.config.CodecConfig;
 import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieInfoIngestFailure;
+import com.reactivespring.domain.MovieInfoPage;
 import com.reactivespring.repository.MovieInfoRepository;
+import com.reactivespring.search.MovieInfoSearchIndex;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @TestPropertySource(properties = "spring.mongodb.embedded.version=3.5.5")
@@ -29,6 +42,9 @@ class MovieInfoControllerIntgTest {
     @Autowired
     WebTestClient webTestClient;
 
+    @Autowired
+    MovieInfoSearchIndex movieInfoSearchIndex;
+
     static String URI = "/v1/movieInfo";
 
     @BeforeEach
@@ -94,6 +110,37 @@ class MovieInfoControllerIntgTest {
                 });
     }
 
+    @Test
+    void addMovieInfoExistingId() {
+        var movieInfo = new MovieInfo(
+                "asdf",
+                "Samurai Jack",
+                2009,
+                List.of("Aku", "Jack"),
+                LocalDate.parse("2009-11-17")
+        );
+
+        webTestClient
+                .post()
+                .uri(URI)
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(409)
+                .expectBody(String.class)
+                .isEqualTo("movieInfo asdf already exists, use PUT to update it");
+
+        webTestClient
+                .get()
+                .uri(URI + "/{id}", "asdf")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.name")
+                .isEqualTo("Batman The Dark Knight");
+    }
+
     @Test
     void getAllMovieInfos() {
 
@@ -123,6 +170,25 @@ class MovieInfoControllerIntgTest {
                 .isEqualTo(name);
     }
 
+    @Test
+    void getMovieInfoById_smile() {
+        webTestClient
+                .get()
+                .uri(URI + "/{id}", "asdf")
+                .accept(CodecConfig.APPLICATION_SMILE)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .contentType(CodecConfig.APPLICATION_SMILE)
+                .expectBody(MovieInfo.class)
+                .consumeWith(movieInfoEntityExchangeResult -> {
+                    var movieInfo = movieInfoEntityExchangeResult.getResponseBody();
+                    assertEquals("Batman The Dark Knight", movieInfo.getName());
+                    assertEquals(LocalDate.parse("2008-07-18"), movieInfo.getReleaseDate());
+                });
+    }
+
     @Test
     void updateMovieInfo() {
         String id = "asdf";
@@ -146,6 +212,60 @@ class MovieInfoControllerIntgTest {
                 .isEqualTo(2022);
     }
 
+    @Test
+    void patchMovieInfo() {
+        String id = "asdf";
+        var changes = new MovieInfo();
+        changes.setYear(2009);
+        changes.setVersion(0L);
+
+        webTestClient
+                .patch()
+                .uri(URI + "/{id}", id)
+                .bodyValue(changes)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.year")
+                .isEqualTo(2009)
+                .jsonPath("$.name")
+                .isEqualTo("Batman The Dark Knight")
+                .jsonPath("$.version")
+                .isEqualTo(1);
+    }
+
+    @Test
+    void patchMovieInfoStaleVersion() {
+        String id = "asdf";
+        var changes = new MovieInfo();
+        changes.setName("Batman The Dark Knight Returns");
+        changes.setVersion(5L);
+
+        webTestClient
+                .patch()
+                .uri(URI + "/{id}", id)
+                .bodyValue(changes)
+                .exchange()
+                .expectStatus()
+                .isEqualTo(409);
+    }
+
+    @Test
+    void patchMovieInfoNotFound() {
+        var changes = new MovieInfo();
+        changes.setYear(2009);
+        changes.setVersion(0L);
+
+        webTestClient
+                .patch()
+                .uri(URI + "/{id}", "xxx")
+                .bodyValue(changes)
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+    }
+
     @Test
     void deleteMovieInfo() {
         String id = "asdf";
@@ -249,4 +369,273 @@ class MovieInfoControllerIntgTest {
                 .expectBodyList(MovieInfo.class)
                 .hasSize(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getMovieInfoByYearAndName() {
+
+        var uri = UriComponentsBuilder.fromUriString(URI)
+                .queryParam("year", 2008)
+                .queryParam("name", "Batman The Dark Knight")
+                .buildAndExpand()
+                .toUri();
+
+        webTestClient
+                .get()
+                .uri(uri)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void getMovieInfoByCast() {
+
+        var uri = UriComponentsBuilder.fromUriString(URI)
+                .queryParam("cast", "Christian Bale")
+                .queryParam("year", 2012)
+                .buildAndExpand()
+                .toUri();
+
+        webTestClient
+                .get()
+                .uri(uri)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void streamAllMovieInfos() {
+
+        var movieInfoFlux = webTestClient
+                .get()
+                .uri(URI + "/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .returnResult(MovieInfo.class)
+                .getResponseBody();
+
+        StepVerifier.create(movieInfoFlux)
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    @Test
+    void getMovieInfoPage() {
+
+        var firstPage = webTestClient
+                .get()
+                .uri(URI + "/page?size=2")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody(MovieInfoPage.class)
+                .returnResult()
+                .getResponseBody();
+
+        assert firstPage != null;
+        assert firstPage.getMovieInfos().size() == 2;
+        assert firstPage.getNextPageToken() != null;
+
+        webTestClient
+                .get()
+                .uri(URI + "/page?size=2&pageToken={pageToken}", firstPage.getNextPageToken())
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.movieInfos.length()")
+                .isEqualTo(1)
+                .jsonPath("$.movieInfos[0].movieInfoId")
+                .isEqualTo("qwerty")
+                .jsonPath("$.nextPageToken")
+                .doesNotExist();
+    }
+
+    @Test
+    void getMovieInfoPageMixedIds() {
+        /* stored with generated ObjectIds next to the string ids from setUp */
+        movieInfoRepository.saveAll(List.of(
+                new MovieInfo(null, "Batman Returns", 1992, List.of("Michael Keaton"), LocalDate.parse("1992-06-19")),
+                new MovieInfo(null, "Batman Forever", 1995, List.of("Val Kilmer"), LocalDate.parse("1995-06-16"))))
+                .blockLast();
+
+        var seen = new ArrayList<String>();
+        String pageToken = null;
+        do {
+            var page = webTestClient
+                    .get()
+                    .uri(pageToken == null ? URI + "/page?size=2" : URI + "/page?size=2&pageToken=" + pageToken)
+                    .exchange()
+                    .expectStatus()
+                    .is2xxSuccessful()
+                    .expectBody(MovieInfoPage.class)
+                    .returnResult()
+                    .getResponseBody();
+            assert page != null;
+            page.getMovieInfos().forEach(movieInfo -> seen.add(movieInfo.getMovieInfoId()));
+            pageToken = page.getNextPageToken();
+        } while (pageToken != null);
+
+        assertEquals(5, seen.size());
+        assertEquals(5, new HashSet<>(seen).size());
+        assertEquals(List.of("asdf", "null", "qwerty"), seen.subList(0, 3));
+    }
+
+    @Test
+    void getMovieInfoPageInvalidToken() {
+
+        webTestClient
+                .get()
+                .uri(URI + "/page?pageToken={pageToken}", "not*a*token")
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    @Test
+    void addMovieInfosBulk() {
+
+        var movieInfos = Flux.just(
+                new MovieInfo(null, "Samurai Jack", 2001, List.of("Aku", "Jack"), LocalDate.parse("2001-08-10")),
+                new MovieInfo(null, "", 2002, List.of("Nobody"), null),
+                new MovieInfo("asdf", "Batman The Dark Knight", 2008, List.of("Christian Bale"), null),
+                new MovieInfo(null, "Dexter's Laboratory", 1996, List.of("Dexter", "Dee Dee"), null)
+        );
+
+        var failures = webTestClient
+                .post()
+                .uri(URI + "/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(movieInfos, MovieInfo.class)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .returnResult(MovieInfoIngestFailure.class)
+                .getResponseBody();
+
+        StepVerifier.create(failures.map(MovieInfoIngestFailure::getIndex).sort())
+                .expectNext(1L, 2L)
+                .verifyComplete();
+
+        StepVerifier.create(movieInfoRepository.count())
+                .assertNext(count -> assertEquals(5L, count))
+                .verifyComplete();
+    }
+
+    @Test
+    void addMovieInfosBulkReportsUndecodableLines() {
+
+        var lines = "{\"name\":\"Samurai Jack\",\"year\":2001,\"cast\":[\"Aku\"]}\n"
+                + "{\"name\":\"Broken\",\"year\":\n"
+                + "\n"
+                + "{\"name\":\"Dexter's Laboratory\",\"year\":1996,\"cast\":[\"Dexter\"]}\n";
+
+        var failures = webTestClient
+                .post()
+                .uri(URI + "/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(lines)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .returnResult(MovieInfoIngestFailure.class)
+                .getResponseBody();
+
+        StepVerifier.create(failures)
+                .assertNext(failure -> {
+                    assertEquals(1L, failure.getIndex());
+                    assertNull(failure.getMovieInfoId());
+                })
+                .verifyComplete();
+
+        StepVerifier.create(movieInfoRepository.count())
+                .assertNext(count -> assertEquals(5L, count))
+                .verifyComplete();
+    }
+
+    @Test
+    void searchMovieInfos() {
+        movieInfoSearchIndex.rebuild().block();
+
+        webTestClient
+                .get()
+                .uri(URI + "/search?q={q}&limit={limit}", "dark kn", 5)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .value(movieInfos -> assertEquals(List.of("asdf", "qwerty"),
+                        movieInfos.stream().map(MovieInfo::getMovieInfoId).collect(Collectors.toList())));
+
+        webTestClient
+                .get()
+                .uri(URI + "/search?q={q}&limit={limit}", "bale", 2)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void searchFindsBulkIngestedMovieInfosRightAway() {
+        movieInfoSearchIndex.rebuild().block();
+
+        webTestClient
+                .post()
+                .uri(URI + "/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(Flux.just(new MovieInfo(null, "Samurai Jack", 2001, List.of("Aku", "Jack"), null)), MovieInfo.class)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfoIngestFailure.class)
+                .hasSize(0);
+
+        webTestClient
+                .get()
+                .uri(URI + "/search?q={q}&limit={limit}", "samurai", 5)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(MovieInfo.class)
+                .value(movieInfos -> {
+                    assertEquals(1, movieInfos.size());
+                    assertNotNull(movieInfos.get(0).getMovieInfoId());
+                });
+    }
+
+    @Test
+    void getMovieInfoViews() {
+        webTestClient
+                .get()
+                .uri(URI + "?year={year}&fields={fields}", 2008, "movieInfoId,name,year")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].movieInfoId").isEqualTo("asdf")
+                .jsonPath("$[0].name").isEqualTo("Batman The Dark Knight")
+                .jsonPath("$[0].year").isEqualTo(2008)
+                .jsonPath("$[0].cast").doesNotExist()
+                .jsonPath("$[0].releaseDate").doesNotExist();
+
+        webTestClient
+                .get()
+                .uri(URI + "?fields={fields}", "name,budget")
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+}
@@ -0,0 +1,57 @@
+package com.reactivespring.cache;
+
+import com.reactivespring.domain.MovieInfo;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MovieInfoCacheTest {
+
+    MovieInfoCache movieInfoCache = new MovieInfoCache(100, Duration.ofMinutes(1));
+
+    AtomicInteger lookups = new AtomicInteger();
+
+    Mono<MovieInfo> lookup(String id) {
+        lookups.incrementAndGet();
+        return Mono.just(new MovieInfo(id, "Jimmy Neutron", 2007, null, null))
+                .delayElement(Duration.ofMillis(100));
+    }
+
+    @Test
+    void concurrentMissesShareOneLookup() {
+        var first = movieInfoCache.get("asdf", this::lookup);
+        var second = movieInfoCache.get("asdf", this::lookup);
+
+        StepVerifier.create(first.zipWith(second))
+                .assertNext(movieInfos -> assertEquals(movieInfos.getT1(), movieInfos.getT2()))
+                .verifyComplete();
+
+        assertEquals(1, lookups.get());
+        assertEquals(1, movieInfoCache.stats().getMissCount());
+        assertEquals(1, movieInfoCache.stats().getHitCount());
+    }
+
+    @Test
+    void invalidateForcesLookup() {
+        movieInfoCache.get("asdf", this::lookup).block();
+        movieInfoCache.invalidate("asdf");
+        movieInfoCache.get("asdf", this::lookup).block();
+
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void emptyResultIsNotCached() {
+        movieInfoCache.get("xxx", id -> Mono.empty()).block();
+
+        StepVerifier.create(movieInfoCache.get("xxx", id -> Mono.empty()))
+                .verifyComplete();
+
+        assertEquals(0, movieInfoCache.stats().getSize());
+    }
+}
@@ -0,0 +1,42 @@
+package com.reactivespring.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MongoConfigTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    ServerId serverId = new ServerId(new ClusterId(), new ServerAddress("localhost", 27017));
+
+    ConnectionPoolListener poolListener() {
+        var builder = MongoClientSettings.builder();
+        new MongoConfig().movieInfoPoolMetricsCustomizer(meterRegistry).customize(builder);
+        return builder.build().getConnectionPoolSettings().getConnectionPoolListeners().get(0);
+    }
+
+    @Test
+    void checkoutWaitsAreTimedPerOutcome() {
+        var listener = poolListener();
+
+        listener.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId));
+        listener.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId));
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(serverId)));
+        listener.connectionCheckOutFailed(new ConnectionCheckOutFailedEvent(serverId, ConnectionCheckOutFailedEvent.Reason.TIMEOUT));
+
+        assertEquals(1, meterRegistry.get("mongodb.driver.pool.checkout.wait").tag("outcome", "checkedout").timer().count());
+        assertEquals(1, meterRegistry.get("mongodb.driver.pool.checkout.wait").tag("outcome", "failed").timer().count());
+        assertEquals(1, meterRegistry.get("mongodb.driver.pool.checkoutfailed").tag("reason", "TIMEOUT").counter().count());
+    }
+}
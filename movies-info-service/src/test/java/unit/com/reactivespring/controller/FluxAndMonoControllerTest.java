@@ -1,9 +1,11 @@
 package com.reactivespring.controller;
 
+import com.reactivespring.streaming.SseStreams;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.test.StepVerifier;
 
@@ -11,6 +13,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 @WebFluxTest(controllers = FluxAndMonoController.class) // make all endpoints of controller accessible
 @AutoConfigureWebTestClient // injects WebTestClient instance automatically
+@Import(SseStreams.class)
 class FluxAndMonoControllerTest {
 
     @Autowired
@@ -75,4 +78,22 @@ class FluxAndMonoControllerTest {
                 .thenCancel()
                 .verify();
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamResumesAfterLastEventId() {
+        var stream = webTestClient
+                .get()
+                .uri("/stream")
+                .header("Last-Event-ID", "41")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .returnResult(Long.class)
+                .getResponseBody();
+
+        StepVerifier.create(stream)
+                .expectNext(42L, 43L)
+                .thenCancel()
+                .verify();
+    }
+}
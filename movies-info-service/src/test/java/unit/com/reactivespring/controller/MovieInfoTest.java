@@ -1,12 +1,16 @@
 package com.reactivespring.controller;
 
 import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieInfoView;
+import com.reactivespring.service.MovieInfoIngestService;
 import com.reactivespring.service.MovieInfoService;
+import com.reactivespring.validation.MovieInfoValidator;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -19,6 +23,7 @@ import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(controllers = MovieInfoController.class)
+@Import(MovieInfoValidator.class)
 @AutoConfigureWebTestClient
 public class MovieInfoTest {
 
@@ -28,6 +33,9 @@ public class MovieInfoTest {
     @MockBean
     private MovieInfoService movieInfoServiceMock;
 
+    @MockBean
+    private MovieInfoIngestService movieInfoIngestServiceMock;
+
     static String URI = "/v1/movieInfo";
 
     @Test
@@ -68,16 +76,16 @@ public class MovieInfoTest {
                 LocalDate.parse("2022-09-11")
         );
 
-        when(movieInfoServiceMock.getMovieInfoByYear(isA(Integer.class))).thenReturn(Flux.just(movieInfo));
+        when(movieInfoServiceMock.getMovieInfos(year, null, null)).thenReturn(Flux.just(movieInfo));
 
         webTestClient
                 .get()
-                .uri(URI + "/{year}", year)
+                .uri(URI + "?year={year}", year)
                 .exchange()
                 .expectStatus()
                 .is2xxSuccessful()
                 .expectBody()
-                .jsonPath("$.year")
+                .jsonPath("$[0].year")
                 .isEqualTo(year);
     }
 
@@ -169,4 +177,41 @@ public class MovieInfoTest {
                 .expectStatus()
                 .isNoContent();
     }
+
+    @Test
+    void addMovieInfoValidation() {
+        var movieInfo = new MovieInfo(null, "", -2, List.of("Christian Bale", " "), LocalDate.parse("2005-06-15"));
+
+        webTestClient
+                .post()
+                .uri(URI)
+                .bodyValue(movieInfo)
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("movieInfo.cast must be present,movieInfo.name must be present,movieInfo.year must be a positive value");
+    }
+
+    @Test
+    void getMovieInfoViews() {
+
+        var views = List.of(
+                new MovieInfoView(null, "Jimmy Neutron", 2007, null, null, null),
+                new MovieInfoView(null, "Adventure Time", 2013, null, null, null)
+        );
+
+        when(movieInfoServiceMock.getMovieInfoViews(null, null, null, "name,year")).thenReturn(Flux.fromIterable(views));
+
+        webTestClient
+                .get()
+                .uri(URI + "?fields=name,year")
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBody()
+                .jsonPath("$[0].name").isEqualTo("Jimmy Neutron")
+                .jsonPath("$[0].cast").doesNotExist()
+                .jsonPath("$[1].year").isEqualTo(2013);
+    }
 }
@@ -0,0 +1,63 @@
+package com.reactivespring.search;
+
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.repository.MovieInfoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MovieInfoSearchIndexTest {
+
+    MovieInfoSearchIndex movieInfoSearchIndex = new MovieInfoSearchIndex(Mockito.mock(MovieInfoRepository.class), Duration.ofMinutes(10));
+
+    @BeforeEach
+    void setUp() {
+        movieInfoSearchIndex.index(new MovieInfo("abc", "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), null));
+        movieInfoSearchIndex.index(new MovieInfo("def", "The Dark Knight", 2008, List.of("Christian Bale", "Heath Ledger"), null));
+        movieInfoSearchIndex.index(new MovieInfo("ghi", "Amélie", 2001, List.of("Audrey Tautou"), null));
+    }
+
+    List<String> search(String query, int limit) {
+        return movieInfoSearchIndex.search(query, limit).stream()
+                .map(MovieInfo::getMovieInfoId)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void matchesWordPrefixesInNameAndCast() {
+        assertEquals(List.of("abc"), search("bat", 10));
+        assertEquals(List.of("abc", "def"), search("chris", 10));
+        assertEquals(List.of("def"), search("dark ledg", 10));
+        assertEquals(List.of(), search("dark begins", 10));
+    }
+
+    @Test
+    void ranksNameHitsAboveCastHits() {
+        movieInfoSearchIndex.index(new MovieInfo("jkl", "Bale", 2020, List.of(), null));
+
+        assertEquals(List.of("jkl", "abc", "def"), search("bale", 10));
+        assertEquals(List.of("jkl"), search("bale", 1));
+    }
+
+    @Test
+    void ignoresCaseAndAccents() {
+        assertEquals(List.of("ghi"), search("AMELIE", 10));
+    }
+
+    @Test
+    void updatesAndRemovalsApplyRightAway() {
+        movieInfoSearchIndex.index(new MovieInfo("abc", "Batman Returns", 1992, List.of("Michael Keaton"), null));
+        movieInfoSearchIndex.remove("def");
+
+        assertEquals(List.of(), search("begins", 10));
+        assertEquals(List.of("abc"), search("returns", 10));
+        assertEquals(List.of(), search("dark", 10));
+        assertEquals(2, movieInfoSearchIndex.size());
+    }
+}
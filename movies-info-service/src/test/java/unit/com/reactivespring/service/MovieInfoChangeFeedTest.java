@@ -0,0 +1,199 @@
+package com.reactivespring.service;
+
+import com.mongodb.client.model.changestream.OperationType;
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.MovieInfoEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.Exceptions;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MovieInfoChangeFeedTest {
+
+    ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+
+    TestPublisher<ChangeStreamEvent<MovieInfo>> shared = TestPublisher.create();
+
+    TestPublisher<ChangeStreamEvent<MovieInfo>> resumed = TestPublisher.create();
+
+    TestPublisher<ChangeStreamEvent<MovieInfo>> replay = TestPublisher.create();
+
+    MovieInfoChangeFeed movieInfoChangeFeed = new MovieInfoChangeFeed(mongoTemplate, 100, 4);
+
+    /* change streams in the order the feed opens them */
+    @SafeVarargs
+    private void changeStreams(TestPublisher<ChangeStreamEvent<MovieInfo>> first, TestPublisher<ChangeStreamEvent<MovieInfo>>... next) {
+        var stubbing = when(mongoTemplate.changeStream(any(), any(ChangeStreamOptions.class), eq(MovieInfo.class)))
+                .thenReturn(first.flux());
+        for (var publisher : next) {
+            stubbing = stubbing.thenReturn(publisher.flux());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieInfoChangeFeed.stop();
+    }
+
+    @Test
+    void subscribersShareOneChangeStream() {
+        changeStreams(shared);
+        var first = movieInfoChangeFeed.events(null);
+        var second = movieInfoChangeFeed.events(null);
+
+        StepVerifier.create(first.zipWith(second).take(2))
+                .then(() -> shared.next(change("1"), change("2")))
+                .assertNext(events -> assertEquals(events.getT1().getResumeToken(), events.getT2().getResumeToken()))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(mongoTemplate, times(1)).changeStream(any(), any(ChangeStreamOptions.class), eq(MovieInfo.class));
+    }
+
+    @Test
+    void resumeTokenInHistoryReplaysTheEventsAfterIt() {
+        changeStreams(shared);
+        StepVerifier.create(movieInfoChangeFeed.events(null).take(3))
+                .then(() -> shared.next(change("1"), change("2"), change("3")))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        StepVerifier.create(movieInfoChangeFeed.events(token("1")).map(MovieInfoEvent::getResumeToken).take(2))
+                .expectNext(token("2"), token("3"))
+                .verifyComplete();
+
+        verify(mongoTemplate, times(1)).changeStream(any(), any(ChangeStreamOptions.class), eq(MovieInfo.class));
+    }
+
+    @Test
+    void upstreamResumesAfterTheLastEventOnError() {
+        changeStreams(shared, resumed);
+        StepVerifier.create(movieInfoChangeFeed.events(null).map(MovieInfoEvent::getResumeToken).take(2))
+                .then(() -> shared.next(change("1")))
+                .expectNext(token("1"))
+                .then(() -> shared.error(new IllegalStateException("cursor killed")))
+                /* the backoff waits about a second before reopening */
+                .thenAwait(Duration.ofSeconds(2))
+                .then(() -> {
+                    resumed.assertWasSubscribed();
+                    resumed.next(change("2"));
+                })
+                .expectNext(token("2"))
+                .verifyComplete();
+
+        var options = ArgumentCaptor.forClass(ChangeStreamOptions.class);
+        verify(mongoTemplate, times(2)).changeStream(any(), options.capture(), eq(MovieInfo.class));
+        assertEquals(resumeToken("1"), options.getAllValues().get(1).getResumeToken().orElseThrow());
+    }
+
+    @Test
+    void unknownResumeTokenReplaysFromMongoThenJoinsTheSharedFeed() {
+        changeStreams(shared, replay);
+        /* the shared feed is started by the first subscriber and sees nothing before it */
+        var live = movieInfoChangeFeed.events(null).subscribe();
+
+        var events = movieInfoChangeFeed.events(token("0")).map(MovieInfoEvent::getResumeToken).take(4);
+
+        StepVerifier.create(events)
+                .then(() -> {
+                    replay.assertWasSubscribed();
+                    replay.next(change("1"));
+                    shared.next(change("2"));
+                    replay.next(change("2"));
+                })
+                .expectNext(token("1"), token("2"))
+                /* from here on the dedicated stream is closed and the shared feed delivers */
+                .then(() -> replay.assertCancelled())
+                .then(() -> shared.next(change("3"), change("4")))
+                .expectNext(token("3"), token("4"))
+                .verifyComplete();
+
+        live.dispose();
+    }
+
+    @Test
+    void unknownResumeTokenJoinsWhenTheSharedFeedIsBehindTheReplay() {
+        changeStreams(shared, replay);
+        var live = movieInfoChangeFeed.events(null).subscribe();
+
+        StepVerifier.create(movieInfoChangeFeed.events(token("0")).map(MovieInfoEvent::getResumeToken).take(3))
+                .then(() -> replay.next(change("1"), change("2")))
+                .expectNext(token("1"), token("2"))
+                .then(() -> shared.next(change("2")))
+                .then(() -> replay.assertCancelled())
+                .then(() -> shared.next(change("3")))
+                .expectNext(token("3"))
+                .verifyComplete();
+
+        live.dispose();
+    }
+
+    @Test
+    void unknownResumeTokenSkipsTheLiveEventsTheReplayAlreadyDelivered() {
+        changeStreams(shared, replay);
+        var live = movieInfoChangeFeed.events(null).subscribe();
+
+        StepVerifier.create(movieInfoChangeFeed.events(token("0")).map(MovieInfoEvent::getResumeToken).take(4))
+                .then(() -> replay.next(change("1"), change("2"), change("3")))
+                .expectNext(token("1"), token("2"), token("3"))
+                /* the shared feed meets the replay two events before the replay stopped */
+                .then(() -> shared.next(change("1")))
+                .then(() -> replay.assertCancelled())
+                .then(() -> shared.next(change("2"), change("3"), change("4")))
+                .expectNext(token("4"))
+                .verifyComplete();
+
+        live.dispose();
+    }
+
+    @Test
+    void subscriberFallingBufferSizeBehindIsDropped() {
+        changeStreams(shared);
+
+        StepVerifier.create(movieInfoChangeFeed.events(null), 0)
+                .then(() -> shared.next(change("1"), change("2"), change("3"), change("4"), change("5")))
+                .thenRequest(Long.MAX_VALUE)
+                .thenConsumeWhile(event -> true)
+                .expectErrorMatches(Exceptions::isOverflow)
+                .verify();
+    }
+
+    private static ChangeStreamEvent<MovieInfo> change(String id) {
+        @SuppressWarnings("unchecked")
+        ChangeStreamEvent<MovieInfo> event = mock(ChangeStreamEvent.class);
+        when(event.getResumeToken()).thenReturn(resumeToken(id));
+        when(event.getOperationType()).thenReturn(OperationType.INSERT);
+        when(event.getBody()).thenReturn(new MovieInfo(id, "Movie " + id, 2000, List.of(), null));
+        return event;
+    }
+
+    private static BsonValue resumeToken(String id) {
+        return new BsonDocument("_data", new BsonString(id));
+    }
+
+    private static String token(String id) {
+        var json = resumeToken(id).asDocument().toJson();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,119 @@
+package com.reactivespring.streaming;
+
+import com.reactivespring.exception.StreamCapacityExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SseStreamsTest {
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    ResumableSource<Integer> numbers = lastEventId -> Flux.range(1, 100)
+            .map(number -> ServerSentEvent.builder(number).id(String.valueOf(number)).build());
+
+    SseStreams sseStreams(int bufferSize, OverflowPolicy policy, int maxSubscribers) {
+        var beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        return new SseStreams(bufferSize, policy, Duration.ofMinutes(1), maxSubscribers,
+                beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    void dropOldestKeepsTheNewestEventsForASlowClient() {
+        var sseStreams = sseStreams(10, OverflowPolicy.DROP_OLDEST, 10);
+
+        StepVerifier.create(sseStreams.stream("numbers", null, numbers), 0)
+                .thenAwait()
+                .thenRequest(Long.MAX_VALUE)
+                .recordWith(ArrayList::new)
+                .thenConsumeWhile(event -> true)
+                .consumeRecordedWith(events -> {
+                    var last = events.stream().reduce((first, second) -> second).orElseThrow();
+                    assertEquals(Integer.valueOf(100), last.data());
+                    assertEquals(100 - events.size(), meterRegistry.counter("movieinfo.stream.dropped", "stream", "numbers").count());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void latestHandsASlowClientNoMoreThanAFewStaleEvents() {
+        var sseStreams = sseStreams(10, OverflowPolicy.LATEST, 10);
+
+        StepVerifier.create(sseStreams.stream("numbers", null, numbers), 0)
+                .thenAwait()
+                .thenRequest(Long.MAX_VALUE)
+                .recordWith(ArrayList::new)
+                .thenConsumeWhile(event -> true)
+                .consumeRecordedWith(events -> {
+                    assertTrue(events.size() <= 3);
+                    var last = events.stream().reduce((first, second) -> second).orElseThrow();
+                    assertEquals(Integer.valueOf(100), last.data());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void disconnectClosesTheStreamOfASlowClient() {
+        var sseStreams = sseStreams(10, OverflowPolicy.DISCONNECT, 10);
+
+        StepVerifier.create(sseStreams.stream("numbers", null, numbers), 0)
+                .thenAwait()
+                .thenRequest(Long.MAX_VALUE)
+                .recordWith(ArrayList::new)
+                .thenConsumeWhile(event -> true)
+                .consumeRecordedWith(events -> assertTrue(events.size() < 100))
+                .verifyComplete();
+
+        assertEquals(1, meterRegistry.counter("movieinfo.stream.evicted", "stream", "numbers").count());
+    }
+
+    @Test
+    void disconnectEndsTheStreamInsteadOfSkippingEvents() {
+        var sseStreams = sseStreams(10, OverflowPolicy.DROP_OLDEST, 10);
+
+        StepVerifier.create(sseStreams.bounded("numbers", Flux.range(1, 100), OverflowPolicy.DISCONNECT), 0)
+                .thenAwait()
+                .thenRequest(Long.MAX_VALUE)
+                .recordWith(ArrayList::new)
+                .thenConsumeWhile(event -> true)
+                .consumeRecordedWith(events -> {
+                    assertTrue(events.size() < 100);
+                    var expected = 1;
+                    for (var event : events) {
+                        assertEquals(expected++, event);
+                    }
+                })
+                .verifyComplete();
+
+        assertEquals(0, meterRegistry.counter("movieinfo.stream.dropped", "stream", "numbers").count());
+        assertEquals(1, meterRegistry.counter("movieinfo.stream.evicted", "stream", "numbers").count());
+    }
+
+    @Test
+    void streamsOverTheCapAreRejected() {
+        var sseStreams = sseStreams(10, OverflowPolicy.DROP_OLDEST, 1);
+        var endless = (ResumableSource<Integer>) lastEventId -> Flux.never();
+
+        var first = sseStreams.stream("numbers", null, endless).subscribe();
+
+        StepVerifier.create(sseStreams.stream("numbers", null, endless))
+                .expectError(StreamCapacityExceededException.class)
+                .verify();
+
+        first.dispose();
+        StepVerifier.create(sseStreams.stream("numbers", null, numbers))
+                .expectNextCount(100)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,61 @@
+package com.reactivespring.validation;
+
+import com.reactivespring.domain.MovieInfo;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/* the precompiled checks must report exactly what bean validation reports for the annotations on MovieInfo */
+class MovieInfoValidatorTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator beanValidator;
+
+    private final MovieInfoValidator movieInfoValidator = new MovieInfoValidator();
+
+    @BeforeAll
+    static void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        beanValidator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void sameViolationsAsBeanValidation() {
+        var movieInfos = List.of(
+                movieInfo("Batman Begins", 2005, "Christian Bale", "Michael Cane"),
+                movieInfo(null, 2005, "Christian Bale"),
+                movieInfo(" ", 0, "Christian Bale"),
+                movieInfo("Batman Begins", null),
+                movieInfo("Batman Begins", -1, "", " ", null),
+                new MovieInfo(null, "Batman Begins", 2005, null, null));
+
+        for (var movieInfo : movieInfos) {
+            var expected = beanValidator.validate(movieInfo)
+                    .stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.toList());
+            assertEquals(expected, movieInfoValidator.violations(movieInfo), movieInfo.toString());
+        }
+    }
+
+    private static MovieInfo movieInfo(String name, Integer year, String... cast) {
+        return new MovieInfo(null, name, year, Arrays.asList(cast), LocalDate.parse("2005-06-15"));
+    }
+}
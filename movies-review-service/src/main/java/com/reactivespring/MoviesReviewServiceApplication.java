@@ -2,11 +2,14 @@ package com.reactivespring;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import reactor.core.scheduler.Schedulers;
 
 @SpringBootApplication
 public class MoviesReviewServiceApplication {
 
 	public static void main(String[] args) {
+		/* executor metrics of the reactor schedulers, published through the micrometer global registry */
+		Schedulers.enableMetrics();
 		SpringApplication.run(MoviesReviewServiceApplication.class, args);
 	}
 
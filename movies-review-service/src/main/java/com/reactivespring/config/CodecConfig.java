@@ -0,0 +1,30 @@
+package com.reactivespring.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/* Binary Smile next to JSON, picked by content negotiation, JSON stays first so it is what clients get by default */
+@Configuration
+public class CodecConfig {
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+    public static final MediaType APPLICATION_STREAM_SMILE = MediaType.valueOf("application/stream+x-jackson-smile");
+
+    /* built from the same builder as the JSON mapper, so dates and modules are handled the same in both formats */
+    @Bean
+    public CodecCustomizer smileCodecCustomizer(Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
+        var smileMapper = jackson2ObjectMapperBuilder
+                .factory(new SmileFactory())
+                .build();
+        return configurer -> {
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper));
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper));
+        };
+    }
+}
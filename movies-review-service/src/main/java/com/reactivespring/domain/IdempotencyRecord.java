@@ -0,0 +1,29 @@
+package com.reactivespring.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/* The outcome of a review POST, kept under the Idempotency-Key the client sent with it */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "reviewIdempotencyKeys")
+public class IdempotencyRecord {
+
+    public enum Status { PENDING, COMPLETED }
+
+    @Id
+    private String key;
+    private Status status;
+    /* the review as a plain document, a mapped Review would have its indexes created on this collection too */
+    private org.bson.Document response;
+    /* mongodb drops the record once this passes, the ttl monitor runs about once a minute */
+    @Indexed(name = "expiresAt_ttl", expireAfterSeconds = 0)
+    private Instant expiresAt;
+}
@@ -3,22 +3,39 @@ package com.reactivespring.domain;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import lombok.NonNull;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Document
+@CompoundIndexes({
+        // keyset pages, equality on movieInfoId then the sort keys with _id as tie breaker
+        @CompoundIndex(name = "movieInfoId_rating_id", def = "{'movieInfoId': 1, 'rating': -1, '_id': -1}"),
+        @CompoundIndex(name = "movieInfoId_createdAt_id", def = "{'movieInfoId': 1, 'createdAt': -1, '_id': -1}")
+})
 public class Review {
 
     @Id
     private String reviewId;
+    @NotNull(message = "rating.movieInfoId : must not be null")
+    @Indexed(name = "movieInfoId") // backs the per movie review feed
     private Long movieInfoId;
     private String comment;
-    //@Min(value = 0L, message = "rating.negative : please pass a non-negative value")
+    @Min(value = 0L, message = "rating.negative : please pass a non-negative value")
     private Double rating;
+    /* set by the service when the review is created, reviews stored before it existed have none */
+    private Instant createdAt;
+
+    public Review(String reviewId, Long movieInfoId, String comment, Double rating) {
+        this(reviewId, movieInfoId, comment, rating, null);
+    }
 }
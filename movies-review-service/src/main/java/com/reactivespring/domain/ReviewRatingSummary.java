@@ -0,0 +1,41 @@
+package com.reactivespring.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/* Rating aggregate of one movie, kept up to date on every review write */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document
+public class ReviewRatingSummary {
+
+    @Id
+    private Long movieInfoId;
+    /* reviews that carry a rating */
+    private long count;
+    private double sum;
+    /* number of reviews per rating bucket, the key is the rating rounded down */
+    private Map<String, Long> histogram = new HashMap<>();
+    /* last review write and last rebuild, rebuildSummaries uses them to leave concurrent writes alone */
+    @JsonIgnore
+    private Instant updatedAt;
+    @JsonIgnore
+    private Instant rebuiltAt;
+
+    public ReviewRatingSummary(Long movieInfoId, long count, double sum, Map<String, Long> histogram) {
+        this(movieInfoId, count, sum, histogram, null, null);
+    }
+
+    public Double getMean() {
+        return count == 0 ? null : sum / count;
+    }
+}
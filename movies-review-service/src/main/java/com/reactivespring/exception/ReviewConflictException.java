@@ -0,0 +1,11 @@
+package com.reactivespring.exception;
+
+public class ReviewConflictException extends RuntimeException{
+
+    private String message;
+
+    public ReviewConflictException(String message) {
+        super(message);
+        this.message = message;
+    }
+}
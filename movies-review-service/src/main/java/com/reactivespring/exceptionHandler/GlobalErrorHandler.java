@@ -0,0 +1,55 @@
+package com.reactivespring.exceptionHandler;
+
+import com.reactivespring.exception.ReviewConflictException;
+import com.reactivespring.exception.ReviewDataException;
+import com.reactivespring.exception.ReviewNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/* runs before spring boot's default handler, which is registered at order -1 */
+@Component
+@Order(-2)
+@Slf4j
+public class GlobalErrorHandler implements ErrorWebExceptionHandler {
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        var response = exchange.getResponse();
+        if (response.isCommitted()) {
+            return Mono.error(ex);
+        }
+        var message = ex.getMessage();
+        if (ex instanceof ResponseStatusException) {
+            /* malformed bodies, unknown routes, 405 and 415 keep the status webflux gave them */
+            var statusException = (ResponseStatusException) ex;
+            response.setStatusCode(statusException.getStatus());
+            response.getHeaders().putAll(statusException.getResponseHeaders());
+            message = statusException.getReason();
+        } else if (ex instanceof ReviewDataException) {
+            response.setStatusCode(HttpStatus.BAD_REQUEST);
+        } else if (ex instanceof ReviewNotFoundException) {
+            response.setStatusCode(HttpStatus.NOT_FOUND);
+        } else if (ex instanceof ReviewConflictException) {
+            response.setStatusCode(HttpStatus.CONFLICT);
+        } else {
+            response.setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        /* client errors are logged without the stack trace, it says nothing the message does not */
+        if (response.getStatusCode() == HttpStatus.INTERNAL_SERVER_ERROR) {
+            log.error("Exception message is {} ", ex.getMessage(), ex);
+        } else {
+            log.error("Exception message is {} ", ex.getMessage());
+        }
+        var body = message == null ? "" : message;
+        var errorMessage = response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(errorMessage));
+    }
+}
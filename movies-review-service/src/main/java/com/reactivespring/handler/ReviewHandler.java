@@ -0,0 +1,204 @@
+package com.reactivespring.handler;
+
+import com.reactivespring.config.CodecConfig;
+import com.reactivespring.domain.IdempotencyRecord;
+import com.reactivespring.domain.Review;
+import com.reactivespring.exception.ReviewConflictException;
+import com.reactivespring.exception.ReviewDataException;
+import com.reactivespring.exception.ReviewNotFoundException;
+import com.reactivespring.repository.ReviewReactiveRepository;
+import com.reactivespring.service.ReviewIdempotencyService;
+import com.reactivespring.service.ReviewPageService;
+import com.reactivespring.service.ReviewRatingService;
+import com.reactivespring.validation.ReviewValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+@Component
+@Slf4j
+public class ReviewHandler {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 128;
+
+    private ReviewReactiveRepository reviewReactiveRepository;
+    private ReviewRatingService reviewRatingService;
+    private ReviewIdempotencyService reviewIdempotencyService;
+    private ReviewPageService reviewPageService;
+    private ReviewValidator validator;
+
+    public ReviewHandler(ReviewReactiveRepository reviewReactiveRepository,
+                         ReviewRatingService reviewRatingService,
+                         ReviewIdempotencyService reviewIdempotencyService,
+                         ReviewPageService reviewPageService,
+                         ReviewValidator validator) {
+        this.reviewReactiveRepository = reviewReactiveRepository;
+        this.reviewRatingService = reviewRatingService;
+        this.reviewIdempotencyService = reviewIdempotencyService;
+        this.reviewPageService = reviewPageService;
+        this.validator = validator;
+    }
+
+    public Mono<ServerResponse> addReview(ServerRequest request) {
+        var idempotencyKey = request.headers().firstHeader(IDEMPOTENCY_KEY);
+        if (idempotencyKey == null) {
+            return createReview(request)
+                    .flatMap(ServerResponse.status(HttpStatus.CREATED)::bodyValue);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            return Mono.error(new ReviewDataException(IDEMPOTENCY_KEY + " must be between 1 and " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters"));
+        }
+        /* a replay is answered from the stored record, the body is neither read nor validated again */
+        return reviewIdempotencyService.find(idempotencyKey)
+                .flatMap(this::replay)
+                .switchIfEmpty(Mono.defer(() -> reviewIdempotencyService.claim(idempotencyKey)
+                        .flatMap(claimed -> claimed
+                                ? createReview(request, idempotencyKey)
+                                : reviewIdempotencyService.find(idempotencyKey)
+                                        .flatMap(this::replay)
+                                        .switchIfEmpty(Mono.error(inProgress(idempotencyKey))))));
+    }
+
+    private Mono<Review> createReview(ServerRequest request) {
+        return request.bodyToMono(Review.class)
+                .doOnNext(this::validate)
+                /* mongodb keeps milliseconds, truncating keeps the response equal to what is stored */
+                .doOnNext(review -> review.setCreatedAt(Instant.now().truncatedTo(ChronoUnit.MILLIS)))
+                .flatMap(reviewReactiveRepository::save)
+                .flatMap(savedReview -> reviewRatingService.recordInsert(savedReview).thenReturn(savedReview));
+    }
+
+    private Mono<ServerResponse> createReview(ServerRequest request, String idempotencyKey) {
+        return createReview(request)
+                .flatMap(savedReview -> reviewIdempotencyService.complete(idempotencyKey, savedReview).thenReturn(savedReview))
+                .onErrorResume(ex -> reviewIdempotencyService.release(idempotencyKey).then(Mono.error(ex)))
+                .flatMap(ServerResponse.status(HttpStatus.CREATED)::bodyValue);
+    }
+
+    private Mono<ServerResponse> replay(IdempotencyRecord record) {
+        if (record.getStatus() != IdempotencyRecord.Status.COMPLETED) {
+            return Mono.error(inProgress(record.getKey()));
+        }
+        return ServerResponse.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED, "true")
+                .bodyValue(reviewIdempotencyService.response(record));
+    }
+
+    private static ReviewConflictException inProgress(String idempotencyKey) {
+        return new ReviewConflictException("A request with " + IDEMPOTENCY_KEY + " " + idempotencyKey + " is still in progress");
+    }
+
+    public Mono<ServerResponse> getReviews(ServerRequest request) {
+        var movieInfoId = request.queryParam("movieInfoId");
+        if (movieInfoId.isPresent()) {
+            /* streamed, every review is written as the cursor hands it over instead of buffering a json array */
+            var limit = request.queryParam("limit").map(ReviewHandler::parseLimit);
+            var reviews = limit.isPresent()
+                    ? reviewReactiveRepository.findByMovieInfoId(parseMovieInfoId(movieInfoId.get()), PageRequest.of(0, limit.get()))
+                    : reviewReactiveRepository.findByMovieInfoId(parseMovieInfoId(movieInfoId.get()));
+            return ServerResponse.ok()
+                    .contentType(streamingMediaType(request))
+                    .body(reviews, Review.class);
+        }
+        return ServerResponse.ok().body(reviewReactiveRepository.findAll(), Review.class);
+    }
+
+    public Mono<ServerResponse> getReviewPage(ServerRequest request) {
+        var movieInfoId = request.queryParam("movieInfoId")
+                .map(ReviewHandler::parseMovieInfoId)
+                .orElseThrow(() -> new ReviewDataException("movieInfoId must be present"));
+        var order = ReviewPageService.Order.of(request.queryParam("sort").orElse("newest"));
+        var size = request.queryParam("size")
+                .map(ReviewHandler::parsePageSize)
+                .orElse(null);
+        return reviewPageService.getReviewPage(movieInfoId, order, request.queryParam("pageToken").orElse(null), size)
+                .flatMap(ServerResponse.ok()::bodyValue);
+    }
+
+    /* the summary deltas are taken from the document each write actually replaced or removed, */
+    /* so concurrent writes to the same review are counted once each */
+    public Mono<ServerResponse> updateReview(ServerRequest request) {
+        var reviewId = request.pathVariable("id");
+        return request.bodyToMono(Review.class)
+                .doOnNext(this::validate)
+                .flatMap(updatedReview -> reviewReactiveRepository.replaceFields(reviewId, updatedReview)
+                        .switchIfEmpty(Mono.error(new ReviewNotFoundException("Review not found for the given Review id " + reviewId)))
+                        .flatMap(previous -> {
+                            var savedReview = new Review(reviewId, updatedReview.getMovieInfoId(), updatedReview.getComment(),
+                                    updatedReview.getRating(), previous.getCreatedAt());
+                            return reviewRatingService.recordUpdate(previous, savedReview).thenReturn(savedReview);
+                        }))
+                .flatMap(ServerResponse.ok()::bodyValue);
+    }
+
+    public Mono<ServerResponse> deleteReview(ServerRequest request) {
+        var reviewId = request.pathVariable("id");
+        return reviewReactiveRepository.removeById(reviewId)
+                .switchIfEmpty(Mono.error(new ReviewNotFoundException("Review not found for the given Review id " + reviewId)))
+                .flatMap(reviewRatingService::recordDelete)
+                .then(ServerResponse.noContent().build());
+    }
+
+    public Mono<ServerResponse> getRatingSummary(ServerRequest request) {
+        var movieInfoId = parseMovieInfoId(request.pathVariable("movieInfoId"));
+        return reviewRatingService.getSummary(movieInfoId)
+                .flatMap(ServerResponse.ok()::bodyValue);
+    }
+
+    public Mono<ServerResponse> rebuildRatingSummaries(ServerRequest request) {
+        return reviewRatingService.rebuildSummaries()
+                .flatMap(rebuilt -> ServerResponse.ok().bodyValue(rebuilt));
+    }
+
+    /* smile for the internal callers that ask for it, newline delimited json for everybody else */
+    private static MediaType streamingMediaType(ServerRequest request) {
+        var acceptsSmile = request.headers().accept().stream()
+                .anyMatch(CodecConfig.APPLICATION_STREAM_SMILE::equalsTypeAndSubtype);
+        return acceptsSmile ? CodecConfig.APPLICATION_STREAM_SMILE : MediaType.APPLICATION_NDJSON;
+    }
+
+    private void validate(Review review) {
+        var violations = validator.violations(review);
+        if (!violations.isEmpty()) {
+            throw new ReviewDataException(String.join(",", violations));
+        }
+    }
+
+    private static Integer parsePageSize(String size) {
+        try {
+            return Integer.valueOf(size);
+        } catch (NumberFormatException e) {
+            throw new ReviewDataException("size must be a number: " + size);
+        }
+    }
+
+    private static Integer parseLimit(String limit) {
+        try {
+            var value = Integer.valueOf(limit);
+            if (value < 1) {
+                throw new ReviewDataException("limit must be positive: " + limit);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new ReviewDataException("limit must be a number: " + limit);
+        }
+    }
+
+    private static Long parseMovieInfoId(String movieInfoId) {
+        try {
+            return Long.valueOf(movieInfoId);
+        } catch (NumberFormatException e) {
+            throw new ReviewDataException("movieInfoId must be a number: " + movieInfoId);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.reactivespring.repository;
+
+import com.reactivespring.domain.Review;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReviewReactiveRepository extends ReactiveMongoRepository<Review, String>, ReviewReactiveRepositoryCustom {
+
+    /* served by the movieInfoId index, fetched in small batches so the feed can be flushed while the cursor is open */
+    @Meta(cursorBatchSize = 256)
+    Flux<Review> findByMovieInfoId(Long movieInfoId);
+
+    /* the page only carries the limit, so the server stops after that many reviews */
+    @Meta(cursorBatchSize = 256)
+    Flux<Review> findByMovieInfoId(Long movieInfoId, Pageable pageable);
+}
@@ -0,0 +1,14 @@
+package com.reactivespring.repository;
+
+import com.reactivespring.domain.Review;
+import reactor.core.publisher.Mono;
+
+/* Atomic writes that hand back the document they replaced, implemented in ReviewReactiveRepositoryCustomImpl */
+public interface ReviewReactiveRepositoryCustom {
+
+    /* single findAndModify of movieInfoId, comment and rating, emits the review as it was before the write */
+    Mono<Review> replaceFields(String reviewId, Review review);
+
+    /* single findAndRemove, emits the removed review, empty when another request removed it first */
+    Mono<Review> removeById(String reviewId);
+}
@@ -0,0 +1,37 @@
+package com.reactivespring.repository;
+
+import com.reactivespring.domain.Review;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+public class ReviewReactiveRepositoryCustomImpl implements ReviewReactiveRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReviewReactiveRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Review> replaceFields(String reviewId, Review review) {
+        var update = new Update()
+                .set("movieInfoId", review.getMovieInfoId())
+                .set("comment", review.getComment())
+                .set("rating", review.getRating());
+        return mongoTemplate.findAndModify(byId(reviewId), update,
+                FindAndModifyOptions.options().returnNew(false), Review.class);
+    }
+
+    @Override
+    public Mono<Review> removeById(String reviewId) {
+        return mongoTemplate.findAndRemove(byId(reviewId), Review.class);
+    }
+
+    private static Query byId(String reviewId) {
+        return Query.query(Criteria.where("reviewId").is(reviewId));
+    }
+}
@@ -0,0 +1,68 @@
+package com.reactivespring.service;
+
+import com.reactivespring.domain.IdempotencyRecord;
+import com.reactivespring.domain.Review;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/* Claim, complete or release an Idempotency-Key, the _id lookup makes a replay a single indexed read */
+@Service
+@Slf4j
+public class ReviewIdempotencyService {
+
+    private ReactiveMongoTemplate mongoTemplate;
+    private Duration ttl;
+    private Clock clock = Clock.systemUTC();
+
+    public ReviewIdempotencyService(ReactiveMongoTemplate mongoTemplate,
+                                    @Value("${reviews.idempotency.ttl:24h}") Duration ttl) {
+        this.mongoTemplate = mongoTemplate;
+        this.ttl = ttl;
+    }
+
+    public Mono<IdempotencyRecord> find(String key) {
+        return mongoTemplate.findById(key, IdempotencyRecord.class);
+    }
+
+    /* false when another request holds the key already, the unique _id settles concurrent claims */
+    public Mono<Boolean> claim(String key) {
+        var record = new IdempotencyRecord(key, IdempotencyRecord.Status.PENDING, null, clock.instant().plus(ttl));
+        return mongoTemplate.insert(record)
+                .thenReturn(true)
+                .onErrorResume(DuplicateKeyException.class, ex -> Mono.just(false));
+    }
+
+    public Mono<Void> complete(String key, Review review) {
+        var response = new Document();
+        mongoTemplate.getConverter().write(review, response);
+        var update = new Update()
+                .set("status", IdempotencyRecord.Status.COMPLETED)
+                .set("response", response)
+                .set("expiresAt", clock.instant().plus(ttl));
+        return mongoTemplate.updateFirst(query(where("_id").is(key)), update, IdempotencyRecord.class)
+                .then();
+    }
+
+    /* the review stored by complete */
+    public Review response(IdempotencyRecord record) {
+        return mongoTemplate.getConverter().read(Review.class, record.getResponse());
+    }
+
+    /* a failed request gives the key back, so the client can retry it */
+    public Mono<Void> release(String key) {
+        return mongoTemplate.remove(query(where("_id").is(key).and("status").is(IdempotencyRecord.Status.PENDING)), IdempotencyRecord.class)
+                .then();
+    }
+}
@@ -0,0 +1,121 @@
+package com.reactivespring.service;
+
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewPage;
+import com.reactivespring.exception.ReviewDataException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/* Keyset pages of the reviews of one movie, every page is a range scan on a compound index wherever it starts */
+@Service
+public class ReviewPageService {
+
+    public enum Order {
+        /* highest rating first, reviews without a rating are left out */
+        RATING("rating", "movieInfoId_rating_id"),
+        /* newest first, reviews stored before createdAt existed are left out */
+        NEWEST("createdAt", "movieInfoId_createdAt_id");
+
+        private final String field;
+        private final String index;
+
+        Order(String field, String index) {
+            this.field = field;
+            this.index = index;
+        }
+
+        public static Order of(String value) {
+            for (var order : values()) {
+                if (order.name().equalsIgnoreCase(value)) {
+                    return order;
+                }
+            }
+            throw new ReviewDataException("sort must be one of rating, newest: " + value);
+        }
+    }
+
+    private ReactiveMongoTemplate mongoTemplate;
+    private int defaultPageSize;
+    private int maxPageSize;
+
+    public ReviewPageService(ReactiveMongoTemplate mongoTemplate,
+                             @Value("${reviews.page.default-size:20}") int defaultPageSize,
+                             @Value("${reviews.page.max-size:100}") int maxPageSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public Mono<ReviewPage> getReviewPage(Long movieInfoId, Order order, String pageToken, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+
+        var criteria = where("movieInfoId").is(movieInfoId).and(order.field).ne(null);
+        if (pageToken != null) {
+            var position = decodePageToken(pageToken, order);
+            /* strictly after the last review of the previous page in (field desc, _id desc) order */
+            criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(
+                    where(order.field).lt(position.value),
+                    new Criteria().andOperator(where(order.field).is(position.value), where("_id").lt(position.reviewId))));
+        }
+        /* one extra review tells us whether there is a next page without a count query */
+        var query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, order.field, "_id"))
+                .limit(pageSize + 1)
+                .withHint(order.index);
+
+        return mongoTemplate.find(query, Review.class)
+                .collectList()
+                .map(page -> {
+                    if (page.size() <= pageSize) {
+                        return new ReviewPage(page, null);
+                    }
+                    var content = page.subList(0, pageSize);
+                    return new ReviewPage(content, encodePageToken(order, content.get(pageSize - 1)));
+                });
+    }
+
+    /* order, sort value and review id of the last review on the page, base64 so clients treat it as opaque */
+    private static String encodePageToken(Order order, Review last) {
+        var value = order == Order.RATING
+                ? String.valueOf(last.getRating())
+                : String.valueOf(last.getCreatedAt().toEpochMilli());
+        var token = order.name() + ":" + value + ":" + last.getReviewId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decodePageToken(String pageToken, Order order) {
+        try {
+            var parts = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length != 3 || !parts[0].equals(order.name())) {
+                throw new ReviewDataException("Invalid page token: " + pageToken);
+            }
+            Object value = order == Order.RATING
+                    ? Double.valueOf(parts[1])
+                    : Instant.ofEpochMilli(Long.parseLong(parts[1]));
+            return new Position(value, parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new ReviewDataException("Invalid page token: " + pageToken);
+        }
+    }
+
+    private static class Position {
+        private final Object value;
+        private final String reviewId;
+
+        Position(Object value, String reviewId) {
+            this.value = value;
+            this.reviewId = reviewId;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.reactivespring.service;
+
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewRatingSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/* Maintains ReviewRatingSummary with one $inc upsert per review write, so reading a summary is a single lookup */
+/* The review write and the summary update are not atomic, rebuildSummaries recomputes everything from the reviews */
+@Service
+@Slf4j
+public class ReviewRatingService {
+
+    private ReactiveMongoTemplate mongoTemplate;
+
+    public ReviewRatingService(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Mono<ReviewRatingSummary> getSummary(Long movieInfoId) {
+        return mongoTemplate.findById(movieInfoId, ReviewRatingSummary.class)
+                .defaultIfEmpty(new ReviewRatingSummary(movieInfoId, 0, 0, new HashMap<>()));
+    }
+
+    public Mono<Void> recordInsert(Review review) {
+        return apply(review, 1);
+    }
+
+    public Mono<Void> recordDelete(Review review) {
+        return apply(review, -1);
+    }
+
+    public Mono<Void> recordUpdate(Review previous, Review updated) {
+        if (Objects.equals(previous.getMovieInfoId(), updated.getMovieInfoId())
+                && previous.getRating() != null && updated.getRating() != null) {
+            var update = new Update().inc("sum", updated.getRating() - previous.getRating());
+            var previousBucket = bucket(previous.getRating());
+            var updatedBucket = bucket(updated.getRating());
+            if (!previousBucket.equals(updatedBucket)) {
+                update.inc("histogram." + previousBucket, -1)
+                        .inc("histogram." + updatedBucket, 1);
+            }
+            return upsert(updated.getMovieInfoId(), update);
+        }
+        return recordDelete(previous).then(recordInsert(updated));
+    }
+
+    /* recomputes every summary from the review collection and drops the ones without reviews left */
+    /* summaries written by a review while the rebuild runs are left to their $inc, overwriting them would lose it */
+    public Mono<Long> rebuildSummaries() {
+        var rebuiltAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        var aggregation = Aggregation.newAggregation(
+                        Aggregation.match(where("rating").ne(null).and("movieInfoId").ne(null)),
+                        Aggregation.project("movieInfoId", "rating")
+                                .and(ArithmeticOperators.Floor.floorValueOf("rating")).as("bucket"),
+                        Aggregation.group("movieInfoId", "bucket")
+                                .count().as("count")
+                                .sum("rating").as("sum"),
+                        Aggregation.sort(Sort.Direction.ASC, "movieInfoId"))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        return mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Review.class), Document.class)
+                .bufferUntilChanged(row -> row.get("_id", Document.class).get("movieInfoId"))
+                .map(this::toSummary)
+                .concatMap(summary -> rebuild(summary, rebuiltAt))
+                .count()
+                /* neither stamped by this rebuild nor written since it started, so no review is left for them */
+                .flatMap(rebuilt -> mongoTemplate
+                        .remove(query(where("rebuiltAt").ne(rebuiltAt)
+                                .orOperator(where("updatedAt").lt(rebuiltAt), where("updatedAt").exists(false))),
+                                ReviewRatingSummary.class)
+                        .thenReturn(rebuilt))
+                .doOnNext(rebuilt -> log.info("Rebuilt {} rating summaries", rebuilt));
+    }
+
+    /* only replaces a summary no review write has touched since the rebuild started */
+    private Mono<ReviewRatingSummary> rebuild(ReviewRatingSummary summary, Instant rebuiltAt) {
+        var untouched = where("movieInfoId").is(summary.getMovieInfoId())
+                .orOperator(where("updatedAt").lt(rebuiltAt), where("updatedAt").exists(false));
+        var update = new Update()
+                .set("count", summary.getCount())
+                .set("sum", summary.getSum())
+                .set("histogram", summary.getHistogram())
+                .set("rebuiltAt", rebuiltAt);
+        return mongoTemplate.upsert(query(untouched), update, ReviewRatingSummary.class)
+                /* the upsert collides with the summary that did not match, it keeps its own totals */
+                .onErrorResume(DuplicateKeyException.class, ex -> {
+                    log.info("Rating summary of {} was written during the rebuild, keeping it", summary.getMovieInfoId());
+                    return Mono.empty();
+                })
+                .thenReturn(summary);
+    }
+
+    private ReviewRatingSummary toSummary(List<Document> buckets) {
+        var summary = new ReviewRatingSummary();
+        summary.setMovieInfoId(((Number) buckets.get(0).get("_id", Document.class).get("movieInfoId")).longValue());
+        summary.setHistogram(buckets.stream().collect(Collectors.toMap(
+                row -> String.valueOf(((Number) row.get("_id", Document.class).get("bucket")).longValue()),
+                row -> ((Number) row.get("count")).longValue())));
+        summary.setCount(buckets.stream().mapToLong(row -> ((Number) row.get("count")).longValue()).sum());
+        summary.setSum(buckets.stream().mapToDouble(row -> ((Number) row.get("sum")).doubleValue()).sum());
+        return summary;
+    }
+
+    private Mono<Void> apply(Review review, int sign) {
+        if (review.getMovieInfoId() == null || review.getRating() == null) {
+            return Mono.empty();
+        }
+        var update = new Update()
+                .inc("count", sign)
+                .inc("sum", sign * review.getRating())
+                .inc("histogram." + bucket(review.getRating()), sign);
+        return upsert(review.getMovieInfoId(), update);
+    }
+
+    private Mono<Void> upsert(Long movieInfoId, Update update) {
+        update.set("updatedAt", Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        return mongoTemplate.upsert(query(where("movieInfoId").is(movieInfoId)), update, ReviewRatingSummary.class)
+                .then();
+    }
+
+    private static String bucket(Double rating) {
+        return String.valueOf((long) Math.floor(rating));
+    }
+}
@@ -0,0 +1,35 @@
+package com.reactivespring.validation;
+
+import com.reactivespring.domain.Review;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/* The constraints declared on Review written out as plain checks, no metadata lookup or reflection per call */
+/* Messages are the ones of the annotations, keep both in sync when a constraint changes */
+@Component
+public class ReviewValidator {
+
+    static final String MOVIE_INFO_ID_MISSING = "rating.movieInfoId : must not be null";
+    static final String RATING_NEGATIVE = "rating.negative : please pass a non-negative value";
+
+    /* sorted messages, empty when the review is valid */
+    public List<String> violations(Review review) {
+        var movieInfoIdMissing = review.getMovieInfoId() == null;
+        var ratingNegative = review.getRating() != null && review.getRating() < 0;
+        if (!movieInfoIdMissing && !ratingNegative) {
+            return Collections.emptyList();
+        }
+        var violations = new ArrayList<String>(2);
+        if (movieInfoIdMissing) {
+            violations.add(MOVIE_INFO_ID_MISSING);
+        }
+        if (ratingNegative) {
+            violations.add(RATING_NEGATIVE);
+        }
+        Collections.sort(violations);
+        return violations;
+    }
+}
@@ -1,4 +1,447 @@
 package com.reactivespring.routes;
 
+import com.reactivespring.config.CodecConfig;
+import com.reactivespring.domain.IdempotencyRecord;
+import com.reactivespring.domain.Review;
+import com.reactivespring.domain.ReviewPage;
+import com.reactivespring.domain.ReviewRatingSummary;
+import com.reactivespring.handler.ReviewHandler;
+import com.reactivespring.repository.ReviewReactiveRepository;
+import com.reactivespring.service.ReviewIdempotencyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = "spring.mongodb.embedded.version=3.5.5")
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
 public class ReviewsIntgTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    ReviewReactiveRepository reviewReactiveRepository;
+
+    @Autowired
+    ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    ReviewIdempotencyService reviewIdempotencyService;
+
+    static String REVIEWS_URL = "/v1/reviews";
+
+    @BeforeEach
+    void setUp() {
+        var reviewsList = List.of(
+                new Review("abc", 1L, "Awesome Movie", 9.0),
+                new Review(null, 1L, "Awesome Movie1", 9.0),
+                new Review(null, 2L, "Excellent Movie", 8.0));
+        reviewReactiveRepository.saveAll(reviewsList)
+                .blockLast();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reviewReactiveRepository.deleteAll()
+                .block();
+        mongoTemplate.remove(ReviewRatingSummary.class)
+                .all()
+                .block();
+        mongoTemplate.remove(IdempotencyRecord.class)
+                .all()
+                .block();
+    }
+
+    @Test
+    void addReview() {
+        var review = new Review(null, 1L, "Awesome Movie", 9.0);
+
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .bodyValue(review)
+                .exchange()
+                .expectStatus()
+                .isCreated()
+                .expectBody(Review.class)
+                .consumeWith(reviewResponse -> {
+                    var savedReview = reviewResponse.getResponseBody();
+                    assert savedReview != null;
+                    assert savedReview.getReviewId() != null;
+                });
+    }
+
+    @Test
+    void addReview_idempotencyKeyReplay() {
+        var review = new Review(null, 1L, "Awesome Movie", 9.0);
+
+        var first = webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .header(ReviewHandler.IDEMPOTENCY_KEY, "client-retry-1")
+                .bodyValue(review)
+                .exchange()
+                .expectStatus()
+                .isCreated()
+                .expectBody(Review.class)
+                .returnResult()
+                .getResponseBody();
+
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .header(ReviewHandler.IDEMPOTENCY_KEY, "client-retry-1")
+                .bodyValue(review)
+                .exchange()
+                .expectStatus()
+                .isCreated()
+                .expectHeader()
+                .valueEquals(ReviewHandler.IDEMPOTENT_REPLAYED, "true")
+                .expectBody(Review.class)
+                .isEqualTo(first);
+
+        StepVerifier.create(reviewReactiveRepository.count())
+                .expectNext(4L)
+                .verifyComplete();
+    }
+
+    @Test
+    void addReview_idempotencyKeyInProgress() {
+        reviewIdempotencyService.claim("client-retry-2").block();
+
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .header(ReviewHandler.IDEMPOTENCY_KEY, "client-retry-2")
+                .bodyValue(new Review(null, 1L, "Awesome Movie", 9.0))
+                .exchange()
+                .expectStatus()
+                .isEqualTo(409);
+    }
+
+    @Test
+    void idempotencyKeysCarryNoReviewIndexes() {
+        StepVerifier.create(mongoTemplate.indexOps(IdempotencyRecord.class).getIndexInfo()
+                        .map(IndexInfo::getName)
+                        .collect(Collectors.toSet()))
+                .assertNext(names -> assertEquals(Set.of("_id_", "expiresAt_ttl"), names))
+                .verifyComplete();
+    }
+
+    @Test
+    void getReviews() {
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectBodyList(Review.class)
+                .hasSize(3);
+    }
+
+    @Test
+    void getReviewsByMovieInfoId() {
+        var reviews = webTestClient
+                .get()
+                .uri(REVIEWS_URL + "?movieInfoId=1")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .returnResult(Review.class)
+                .getResponseBody();
+
+        StepVerifier.create(reviews)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void getReviewsByMovieInfoId_limit() {
+        var reviews = webTestClient
+                .get()
+                .uri(REVIEWS_URL + "?movieInfoId=1&limit=1")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .returnResult(Review.class)
+                .getResponseBody();
+
+        StepVerifier.create(reviews)
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void updateReview() {
+        var updatedReview = new Review(null, 1L, "Not an Awesome Movie", 8.0);
+
+        webTestClient
+                .put()
+                .uri(REVIEWS_URL + "/{id}", "abc")
+                .bodyValue(updatedReview)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.comment")
+                .isEqualTo("Not an Awesome Movie")
+                .jsonPath("$.rating")
+                .isEqualTo(8.0);
+    }
+
+    @Test
+    void deleteReview() {
+        webTestClient
+                .delete()
+                .uri(REVIEWS_URL + "/{id}", "abc")
+                .exchange()
+                .expectStatus()
+                .isNoContent();
+    }
+
+    @Test
+    void deleteReviewNotFound() {
+        webTestClient
+                .delete()
+                .uri(REVIEWS_URL + "/{id}", "xyz")
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+    }
+
+    @Test
+    void getReviewsByMovieInfoId_smile() {
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "?movieInfoId=1")
+                .accept(CodecConfig.APPLICATION_STREAM_SMILE)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .contentType(CodecConfig.APPLICATION_STREAM_SMILE)
+                .expectBodyList(Review.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void getReviewPages_byRating() {
+        var createdAt = Instant.parse("2021-08-01T00:00:00Z");
+        reviewReactiveRepository.saveAll(List.of(
+                new Review("r1", 5L, "Good", 7.0, createdAt),
+                new Review("r2", 5L, "Great", 9.0, createdAt),
+                new Review("r3", 5L, "Also Great", 9.0, createdAt),
+                new Review("r4", 5L, "Bad", 2.0, createdAt),
+                new Review("r5", 5L, "Unrated", null, createdAt)))
+                .blockLast();
+
+        var firstPage = getReviewPage("/page?movieInfoId=5&sort=rating&size=2");
+        assert firstPage.getReviews().stream().map(Review::getReviewId).collect(Collectors.toList())
+                .equals(List.of("r3", "r2"));
+        assert firstPage.getNextPageToken() != null;
+
+        var secondPage = getReviewPage("/page?movieInfoId=5&sort=rating&size=2&pageToken=" + firstPage.getNextPageToken());
+        assert secondPage.getReviews().stream().map(Review::getReviewId).collect(Collectors.toList())
+                .equals(List.of("r1", "r4"));
+        assert secondPage.getNextPageToken() == null;
+    }
+
+    @Test
+    void getReviewPages_newest() {
+        var first = webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .bodyValue(new Review(null, 6L, "First", 8.0))
+                .exchange()
+                .expectBody(Review.class)
+                .returnResult()
+                .getResponseBody();
+        assert first != null && first.getCreatedAt() != null;
+
+        var page = getReviewPage("/page?movieInfoId=6&sort=newest");
+        assert page.getReviews().size() == 1;
+        assert page.getReviews().get(0).getReviewId().equals(first.getReviewId());
+    }
+
+    @Test
+    void getReviewPages_tokenOfOtherOrder() {
+        reviewReactiveRepository.saveAll(List.of(
+                new Review("n1", 7L, "One", 7.0, Instant.parse("2021-08-01T00:00:00Z")),
+                new Review("n2", 7L, "Two", 8.0, Instant.parse("2021-08-02T00:00:00Z"))))
+                .blockLast();
+        var newestToken = getReviewPage("/page?movieInfoId=7&sort=newest&size=1").getNextPageToken();
+
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "/page?movieInfoId=7&sort=rating&pageToken=" + newestToken)
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    private ReviewPage getReviewPage(String path) {
+        return webTestClient
+                .get()
+                .uri(REVIEWS_URL + path)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(ReviewPage.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Test
+    void rebuildRatingSummaries() {
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL + "/summary/rebuild")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(Long.class)
+                .isEqualTo(2L);
+
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "/summary/{movieInfoId}", 1)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.count")
+                .isEqualTo(2)
+                .jsonPath("$.mean")
+                .isEqualTo(9.0)
+                .jsonPath("$.histogram.9")
+                .isEqualTo(2);
+    }
+
+    @Test
+    void rebuildRatingSummariesLeavesConcurrentWritesAlone() {
+        var stale = new ReviewRatingSummary(99L, 3, 21.0, new HashMap<>(Map.of("7", 3L)));
+        /* written by a review while the rebuild runs */
+        var concurrent = new ReviewRatingSummary(1L, 7, 63.0, new HashMap<>(Map.of("9", 7L)));
+        concurrent.setUpdatedAt(Instant.now().plusSeconds(60));
+        mongoTemplate.save(stale).block();
+        mongoTemplate.save(concurrent).block();
+
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL + "/summary/rebuild")
+                .exchange()
+                .expectStatus()
+                .isOk();
+
+        assertNull(mongoTemplate.findById(99L, ReviewRatingSummary.class).block());
+        assertEquals(7, mongoTemplate.findById(1L, ReviewRatingSummary.class).block().getCount());
+        assertEquals(1, mongoTemplate.findById(2L, ReviewRatingSummary.class).block().getCount());
+    }
+
+    @Test
+    void deletingAReviewTwiceCountsItOnce() {
+        var savedReview = webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .bodyValue(new Review(null, 3L, "Good Movie", 7.5))
+                .exchange()
+                .expectStatus()
+                .isCreated()
+                .expectBody(Review.class)
+                .returnResult()
+                .getResponseBody();
+
+        assert savedReview != null;
+
+        webTestClient
+                .delete()
+                .uri(REVIEWS_URL + "/{id}", savedReview.getReviewId())
+                .exchange()
+                .expectStatus()
+                .isNoContent();
+
+        webTestClient
+                .delete()
+                .uri(REVIEWS_URL + "/{id}", savedReview.getReviewId())
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "/summary/{movieInfoId}", 3)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.count")
+                .isEqualTo(0);
+    }
+
+    @Test
+    void ratingSummaryFollowsReviewWrites() {
+        var review = new Review(null, 3L, "Good Movie", 7.5);
+
+        var savedReview = webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .bodyValue(review)
+                .exchange()
+                .expectStatus()
+                .isCreated()
+                .expectBody(Review.class)
+                .returnResult()
+                .getResponseBody();
+
+        assert savedReview != null;
+
+        webTestClient
+                .put()
+                .uri(REVIEWS_URL + "/{id}", savedReview.getReviewId())
+                .bodyValue(new Review(null, 3L, "Great Movie", 9.5))
+                .exchange()
+                .expectStatus()
+                .isOk();
+
+        webTestClient
+                .get()
+                .uri(REVIEWS_URL + "/summary/{movieInfoId}", 3)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.count")
+                .isEqualTo(1)
+                .jsonPath("$.sum")
+                .isEqualTo(9.5)
+                .jsonPath("$.histogram.9")
+                .isEqualTo(1)
+                .jsonPath("$.histogram.7")
+                .isEqualTo(0);
+    }
 }
@@ -1,4 +1,145 @@
 package com.reactivespring.routes;
 
+import com.reactivespring.domain.Review;
+import com.reactivespring.exceptionHandler.GlobalErrorHandler;
+import com.reactivespring.handler.ReviewHandler;
+import com.reactivespring.repository.ReviewReactiveRepository;
+import com.reactivespring.router.ReviewRouter;
+import com.reactivespring.service.ReviewIdempotencyService;
+import com.reactivespring.service.ReviewPageService;
+import com.reactivespring.service.ReviewRatingService;
+import com.reactivespring.validation.ReviewValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest
+@ContextConfiguration(classes = {ReviewRouter.class, ReviewHandler.class, ReviewValidator.class, GlobalErrorHandler.class})
+@AutoConfigureWebTestClient
 public class ReviewsUnitTest {
+
+    @MockBean
+    private ReviewReactiveRepository reviewReactiveRepository;
+
+    @MockBean
+    private ReviewRatingService reviewRatingService;
+
+    @MockBean
+    private ReviewIdempotencyService reviewIdempotencyService;
+
+    @MockBean
+    private ReviewPageService reviewPageService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    static String REVIEWS_URL = "/v1/reviews";
+
+    @Test
+    void addReview() {
+        var review = new Review(null, 1L, "Awesome Movie", 9.0);
+
+        when(reviewReactiveRepository.save(isA(Review.class)))
+                .thenReturn(Mono.just(new Review("abc", 1L, "Awesome Movie", 9.0)));
+        when(reviewRatingService.recordInsert(isA(Review.class))).thenReturn(Mono.empty());
+
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .bodyValue(review)
+                .exchange()
+                .expectStatus()
+                .isCreated()
+                .expectBody(Review.class)
+                .consumeWith(reviewResponse -> {
+                    var savedReview = reviewResponse.getResponseBody();
+                    assert savedReview != null;
+                    assert savedReview.getReviewId() != null;
+                });
+    }
+
+    @Test
+    void addReviewValidation() {
+        var review = new Review(null, null, "Awesome Movie", -9.0);
+
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .bodyValue(review)
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("rating.movieInfoId : must not be null,rating.negative : please pass a non-negative value");
+    }
+
+    @Test
+    void getReviewsByMovieInfoId() {
+        when(reviewReactiveRepository.findByMovieInfoId(1L))
+                .thenReturn(Flux.just(
+                        new Review("abc", 1L, "Awesome Movie", 9.0),
+                        new Review("def", 1L, "Excellent Movie", 8.0)));
+
+        var reviews = webTestClient
+                .get()
+                .uri(REVIEWS_URL + "?movieInfoId=1")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus()
+                .is2xxSuccessful()
+                .expectHeader()
+                .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Review.class)
+                .getResponseBody();
+
+        StepVerifier.create(reviews)
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void updateReviewNotFound() {
+        when(reviewReactiveRepository.replaceFields(isA(String.class), isA(Review.class))).thenReturn(Mono.empty());
+
+        webTestClient
+                .put()
+                .uri(REVIEWS_URL + "/{id}", "abc")
+                .bodyValue(new Review(null, 1L, "Not an Awesome Movie", 8.0))
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+    }
+
+    @Test
+    void addReviewMalformedBody() {
+        webTestClient
+                .post()
+                .uri(REVIEWS_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"movieInfoId\": 1, \"comment\": ")
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+
+    @Test
+    void unknownPath() {
+        webTestClient
+                .get()
+                .uri("/v1/unknown")
+                .exchange()
+                .expectStatus()
+                .isNotFound();
+    }
 }
@@ -0,0 +1,16 @@
+package com.reactivespring.cache;
+
+import com.reactivespring.domain.Movie;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedMovie {
+
+    private Movie movie;
+    /* epoch millis, kept with the entry so both tiers agree on its age */
+    private long writtenAt;
+}
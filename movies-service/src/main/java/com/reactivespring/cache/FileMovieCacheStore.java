@@ -0,0 +1,63 @@
+package com.reactivespring.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+
+/* Local stand-in for a shared store, one json file per movie, the file io runs on boundedElastic */
+public class FileMovieCacheStore implements MovieCacheStore {
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    public FileMovieCacheStore(Path directory, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<CachedMovie> get(String movieId) {
+        return Mono.fromCallable(() -> {
+                    var file = file(movieId);
+                    if (!Files.exists(file)) {
+                        return null;
+                    }
+                    return objectMapper.readValue(file.toFile(), CachedMovie.class);
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Void> put(String movieId, CachedMovie cachedMovie) {
+        return Mono.<Void>fromCallable(() -> {
+                    Files.createDirectories(directory);
+                    /* readers never see a half written file */
+                    var temp = Files.createTempFile(directory, "movie", ".tmp");
+                    objectMapper.writeValue(temp.toFile(), cachedMovie);
+                    Files.move(temp, file(movieId), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    return null;
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Void> evict(String movieId) {
+        return Mono.<Void>fromCallable(() -> {
+                    Files.deleteIfExists(file(movieId));
+                    return null;
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /* the id comes from the request path, encoding it keeps it from naming anything outside the directory */
+    private Path file(String movieId) {
+        var name = Base64.getUrlEncoder().withoutPadding().encodeToString(movieId.getBytes(StandardCharsets.UTF_8));
+        return directory.resolve(name + ".json");
+    }
+}
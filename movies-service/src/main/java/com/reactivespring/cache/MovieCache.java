@@ -0,0 +1,101 @@
+package com.reactivespring.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.reactivespring.config.MovieCacheProperties;
+import com.reactivespring.domain.Movie;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/* Bounded in-process cache of aggregated movies in front of an optional MovieCacheStore */
+/* Entries are fresh for ttl, then stale for staleTtl, callers serve stale entries and refresh them */
+@Slf4j
+public class MovieCache {
+
+    private final Cache<String, CachedMovie> local;
+    private final MovieCacheStore store;
+    private final Clock clock;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration maxAge;
+
+    public MovieCache(MovieCacheProperties properties, MovieCacheStore store, Clock clock) {
+        this.store = store;
+        this.clock = clock;
+        this.enabled = properties.isEnabled();
+        this.ttl = properties.getTtl();
+        this.maxAge = properties.getTtl().plus(properties.getStaleTtl());
+        this.local = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                /* an entry copied in from the store keeps the age it had there */
+                .expireAfter(new Expiry<String, CachedMovie>() {
+                    @Override
+                    public long expireAfterCreate(String movieId, CachedMovie cachedMovie, long currentTime) {
+                        return remaining(cachedMovie);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String movieId, CachedMovie cachedMovie, long currentTime, long currentDuration) {
+                        return remaining(cachedMovie);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String movieId, CachedMovie cachedMovie, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                /* the same clock as writtenAt, so both agree on when an entry expires */
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .build();
+    }
+
+    /* empty on a miss and for entries past ttl + staleTtl, a failing store counts as a miss */
+    public Mono<CachedMovie> lookup(String movieId) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.justOrEmpty(local.getIfPresent(movieId))
+                .switchIfEmpty(Mono.defer(() -> store.get(movieId)
+                        .filter(cachedMovie -> age(cachedMovie).compareTo(maxAge) < 0)
+                        .doOnNext(cachedMovie -> local.put(movieId, cachedMovie))
+                        .onErrorResume(ex -> {
+                            log.warn("Movie cache store lookup failed for {}: {}", movieId, ex.getMessage());
+                            return Mono.empty();
+                        })));
+    }
+
+    public boolean isFresh(CachedMovie cachedMovie) {
+        return age(cachedMovie).compareTo(ttl) < 0;
+    }
+
+    public Mono<Void> put(String movieId, Movie movie) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        var cachedMovie = new CachedMovie(movie, clock.millis());
+        local.put(movieId, cachedMovie);
+        return store.put(movieId, cachedMovie)
+                .onErrorResume(ex -> {
+                    log.warn("Movie cache store write failed for {}: {}", movieId, ex.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public Mono<Void> evict(String movieId) {
+        local.invalidate(movieId);
+        return store.evict(movieId);
+    }
+
+    private long remaining(CachedMovie cachedMovie) {
+        return Math.max(0, maxAge.minus(age(cachedMovie)).toNanos());
+    }
+
+    private Duration age(CachedMovie cachedMovie) {
+        return Duration.ofMillis(clock.millis() - cachedMovie.getWrittenAt());
+    }
+}
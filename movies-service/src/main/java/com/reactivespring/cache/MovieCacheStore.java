@@ -0,0 +1,13 @@
+package com.reactivespring.cache;
+
+import reactor.core.publisher.Mono;
+
+/* Second tier of MovieCache, e.g. a store shared by all instances of movies-service */
+public interface MovieCacheStore {
+
+    Mono<CachedMovie> get(String movieId);
+
+    Mono<Void> put(String movieId, CachedMovie cachedMovie);
+
+    Mono<Void> evict(String movieId);
+}
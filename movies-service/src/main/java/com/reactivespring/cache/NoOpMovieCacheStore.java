@@ -0,0 +1,21 @@
+package com.reactivespring.cache;
+
+import reactor.core.publisher.Mono;
+
+public class NoOpMovieCacheStore implements MovieCacheStore {
+
+    @Override
+    public Mono<CachedMovie> get(String movieId) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> put(String movieId, CachedMovie cachedMovie) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> evict(String movieId) {
+        return Mono.empty();
+    }
+}
@@ -0,0 +1,81 @@
+package com.reactivespring.client;
+
+import com.reactivespring.config.CodecConfig;
+import com.reactivespring.config.RestClientProperties;
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.exception.MoviesInfoClientException;
+import com.reactivespring.exception.MoviesInfoServerException;
+import com.reactivespring.util.RetryBudget;
+import com.reactivespring.util.RetryUtil;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+@Component
+@Slf4j
+public class MoviesInfoRestClient {
+
+    private WebClient webClient;
+    private RestClientProperties properties;
+    private RetryBudget retryBudget;
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+
+    public MoviesInfoRestClient(@Qualifier("moviesInfoWebClient") WebClient webClient,
+                                RestClientProperties properties,
+                                RetryBudget retryBudget,
+                                CircuitBreakerRegistry circuitBreakerRegistry,
+                                BulkheadRegistry bulkheadRegistry) {
+        this.webClient = webClient;
+        this.properties = properties;
+        this.retryBudget = retryBudget;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("moviesInfo");
+        this.bulkhead = bulkheadRegistry.bulkhead("moviesInfo");
+    }
+
+    public Mono<MovieInfo> retrieveMovieInfo(String movieInfoId) {
+        return webClient
+                .get()
+                .uri(properties.getMoviesInfoUrl() + "/{id}", movieInfoId)
+                /* smile between the services, json still works against an instance that does not offer it */
+                .accept(CodecConfig.APPLICATION_SMILE, MediaType.APPLICATION_JSON)
+                .retrieve()
+                .onStatus(HttpStatus::is4xxClientError, clientResponse -> {
+                    if (clientResponse.statusCode().equals(HttpStatus.NOT_FOUND)) {
+                        return Mono.error(new MoviesInfoClientException(
+                                "There is no MovieInfo available for the passed in Id : " + movieInfoId,
+                                clientResponse.rawStatusCode()));
+                    }
+                    return clientResponse.bodyToMono(String.class)
+                            .defaultIfEmpty(clientResponse.statusCode().getReasonPhrase())
+                            .flatMap(body -> Mono.error(new MoviesInfoClientException(body, clientResponse.rawStatusCode())));
+                })
+                .onStatus(HttpStatus::is5xxServerError, clientResponse -> clientResponse.bodyToMono(String.class)
+                        .defaultIfEmpty(clientResponse.statusCode().getReasonPhrase())
+                        .flatMap(body -> Mono.error(new MoviesInfoServerException("Server Exception in MoviesInfoService " + body))))
+                .bodyToMono(MovieInfo.class)
+                .retryWhen(RetryUtil.retrySpec(properties.getRetry(), retryBudget, MoviesInfoServerException.class))
+                /* connect failures and response timeouts are not retried, but they count against the breaker */
+                .onErrorMap(WebClientRequestException.class, ex -> new MoviesInfoServerException("MoviesInfoService is unreachable: " + ex.getMessage()))
+                /* one logical call per permit and per breaker outcome, whatever the retries did */
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .onErrorMap(CallNotPermittedException.class, ex -> new MoviesInfoServerException("MoviesInfoService circuit breaker is open"))
+                .onErrorMap(BulkheadFullException.class, ex -> new MoviesInfoServerException("MoviesInfoService has too many calls in flight"))
+                /* once per call, the retries resubscribe above this point */
+                .doOnSubscribe(subscription -> retryBudget.deposit());
+    }
+}
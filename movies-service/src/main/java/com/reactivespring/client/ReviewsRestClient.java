@@ -0,0 +1,83 @@
+package com.reactivespring.client;
+
+import com.reactivespring.config.CodecConfig;
+import com.reactivespring.config.RestClientProperties;
+import com.reactivespring.domain.Review;
+import com.reactivespring.exception.ReviewsClientException;
+import com.reactivespring.exception.ReviewsServerException;
+import com.reactivespring.util.RetryBudget;
+import com.reactivespring.util.RetryUtil;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+@Slf4j
+public class ReviewsRestClient {
+
+    private WebClient webClient;
+    private RestClientProperties properties;
+    private RetryBudget retryBudget;
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+
+    public ReviewsRestClient(@Qualifier("reviewsWebClient") WebClient webClient,
+                             RestClientProperties properties,
+                             RetryBudget retryBudget,
+                             CircuitBreakerRegistry circuitBreakerRegistry,
+                             BulkheadRegistry bulkheadRegistry) {
+        this.webClient = webClient;
+        this.properties = properties;
+        this.retryBudget = retryBudget;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("reviews");
+        this.bulkhead = bulkheadRegistry.bulkhead("reviews");
+    }
+
+    /* the review service stops after limit reviews, so the stream ends instead of being cancelled mid-flight */
+    public Flux<Review> retrieveReviews(String movieInfoId, int limit) {
+        var uri = UriComponentsBuilder.fromHttpUrl(properties.getReviewsUrl())
+                .queryParam("movieInfoId", movieInfoId)
+                .queryParam("limit", limit)
+                .buildAndExpand()
+                .toUriString();
+
+        return webClient
+                .get()
+                .uri(uri)
+                /* smile between the services, json still works against an instance that does not offer it */
+                .accept(CodecConfig.APPLICATION_STREAM_SMILE, MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON)
+                .retrieve()
+                .onStatus(HttpStatus::is4xxClientError, clientResponse -> clientResponse.bodyToMono(String.class)
+                        .defaultIfEmpty(clientResponse.statusCode().getReasonPhrase())
+                        .flatMap(body -> Mono.error(new ReviewsClientException(body, clientResponse.rawStatusCode()))))
+                .onStatus(HttpStatus::is5xxServerError, clientResponse -> clientResponse.bodyToMono(String.class)
+                        .defaultIfEmpty(clientResponse.statusCode().getReasonPhrase())
+                        .flatMap(body -> Mono.error(new ReviewsServerException("Server Exception in ReviewsService " + body))))
+                .bodyToFlux(Review.class)
+                .retryWhen(RetryUtil.retrySpec(properties.getRetry(), retryBudget, ReviewsServerException.class))
+                /* connect failures and response timeouts are not retried, but they count against the breaker */
+                .onErrorMap(WebClientRequestException.class, ex -> new ReviewsServerException("ReviewsService is unreachable: " + ex.getMessage()))
+                /* one logical call per permit and per breaker outcome, whatever the retries did */
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .onErrorMap(CallNotPermittedException.class, ex -> new ReviewsServerException("ReviewsService circuit breaker is open"))
+                .onErrorMap(BulkheadFullException.class, ex -> new ReviewsServerException("ReviewsService has too many calls in flight"))
+                /* once per call, the retries resubscribe above this point */
+                .doOnSubscribe(subscription -> retryBudget.deposit());
+    }
+}
@@ -0,0 +1,36 @@
+package com.reactivespring.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reactivespring.cache.FileMovieCacheStore;
+import com.reactivespring.cache.MovieCache;
+import com.reactivespring.cache.MovieCacheStore;
+import com.reactivespring.cache.NoOpMovieCacheStore;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(MovieCacheProperties.class)
+public class MovieCacheConfig {
+
+    /* a shared store plugs in here by implementing MovieCacheStore */
+    @Bean
+    public MovieCacheStore movieCacheStore(MovieCacheProperties properties, ObjectMapper objectMapper) {
+        switch (properties.getStore()) {
+            case "none":
+                return new NoOpMovieCacheStore();
+            case "file":
+                return new FileMovieCacheStore(Path.of(properties.getFile().getDirectory()), objectMapper);
+            default:
+                throw new IllegalArgumentException("Unknown movies.cache.store: " + properties.getStore());
+        }
+    }
+
+    @Bean
+    public MovieCache movieCache(MovieCacheProperties properties, MovieCacheStore movieCacheStore) {
+        return new MovieCache(properties, movieCacheStore, Clock.systemUTC());
+    }
+}
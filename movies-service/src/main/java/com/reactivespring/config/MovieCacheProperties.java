@@ -0,0 +1,28 @@
+package com.reactivespring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/* Aggregated Movie cache, applied by MovieCacheConfig */
+@Data
+@ConfigurationProperties(prefix = "movies.cache")
+public class MovieCacheProperties {
+
+    private boolean enabled = true;
+    private long maximumSize = 10_000;
+    /* entries younger than this are served as they are */
+    private Duration ttl = Duration.ofSeconds(30);
+    /* after ttl an entry is still served for this long while it is refreshed in the background */
+    private Duration staleTtl = Duration.ofMinutes(5);
+    /* second tier behind the in-process cache: none or file */
+    private String store = "none";
+
+    private File file = new File();
+
+    @Data
+    public static class File {
+        private String directory = "build/movie-cache";
+    }
+}
@@ -0,0 +1,53 @@
+package com.reactivespring.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/* Downstream endpoints and HTTP client tuning, applied by WebClientConfig */
+@Data
+@ConfigurationProperties(prefix = "restclient")
+public class RestClientProperties {
+
+    private String moviesInfoUrl = "http://localhost:8080/v1/movieInfo";
+    private String reviewsUrl = "http://localhost:8081/v1/reviews";
+
+    private Pool pool = new Pool();
+
+    private Timeouts moviesInfoTimeouts = new Timeouts();
+    private Timeouts reviewsTimeouts = new Timeouts();
+
+    private Retry retry = new Retry();
+
+    @Data
+    public static class Pool {
+        /* shared by both clients, each remote host gets its own pool of this size */
+        private int maxConnections = 200;
+        /* how long a call may wait for a free connection before it fails */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+        private int pendingAcquireMaxCount = 1000;
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+        private Duration evictInBackground = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Timeouts {
+        private Duration connect = Duration.ofSeconds(1);
+        /* time from the request being written until the response headers arrive */
+        private Duration response = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class Retry {
+        private long maxAttempts = 2;
+        private Duration minBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(1);
+        private double jitter = 0.5;
+        /* retries allowed per call made, across both clients, 0.2 caps the extra load at 20% */
+        private double budgetRatio = 0.2;
+        /* retries allowed before any calls have been deposited, and the most that can be saved up */
+        private int budgetMinRetries = 10;
+    }
+}
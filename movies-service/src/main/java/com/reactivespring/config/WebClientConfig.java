@@ -0,0 +1,62 @@
+package com.reactivespring.config;
+
+import com.reactivespring.util.RetryBudget;
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+@EnableConfigurationProperties(RestClientProperties.class)
+public class WebClientConfig {
+
+    /* one pool for both downstream services instead of the unbounded default of HttpClient.create() */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider connectionProvider(RestClientProperties properties) {
+        var pool = properties.getPool();
+        return ConnectionProvider.builder("movies-service")
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .maxLifeTime(pool.getMaxLifeTime())
+                .evictInBackground(pool.getEvictInBackground())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient moviesInfoWebClient(WebClient.Builder builder, ConnectionProvider connectionProvider,
+                                         RestClientProperties properties) {
+        return webClient(builder, connectionProvider, properties.getMoviesInfoTimeouts());
+    }
+
+    @Bean
+    public WebClient reviewsWebClient(WebClient.Builder builder, ConnectionProvider connectionProvider,
+                                      RestClientProperties properties) {
+        return webClient(builder, connectionProvider, properties.getReviewsTimeouts());
+    }
+
+    @Bean
+    public RetryBudget retryBudget(RestClientProperties properties) {
+        var retry = properties.getRetry();
+        return new RetryBudget(retry.getBudgetRatio(), retry.getBudgetMinRetries());
+    }
+
+    /* each client gets its own timeouts on top of the shared pool */
+    private static WebClient webClient(WebClient.Builder builder, ConnectionProvider connectionProvider,
+                                       RestClientProperties.Timeouts timeouts) {
+        var httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeouts.getConnect().toMillis())
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(timeouts.getResponse());
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.reactivespring.controller;
+
+import com.reactivespring.domain.Movie;
+import com.reactivespring.service.MoviesService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/movies")
+public class MoviesController {
+
+    private MoviesService moviesService;
+
+    public MoviesController(MoviesService moviesService) {
+        this.moviesService = moviesService;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Movie> retrieveMovieById(@PathVariable("id") String movieId) {
+        return moviesService.getMovieById(movieId);
+    }
+
+    /* ?ids=1,2,3 or ?ids=1&ids=2 */
+    @GetMapping(params = "ids")
+    public Flux<Movie> retrieveMoviesByIds(@RequestParam("ids") List<String> movieIds) {
+        return moviesService.getMoviesByIds(movieIds);
+    }
+}
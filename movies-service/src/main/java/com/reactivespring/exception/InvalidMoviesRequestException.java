@@ -0,0 +1,15 @@
+package com.reactivespring.exception;
+
+public class InvalidMoviesRequestException extends RuntimeException{
+    private String message;
+
+    public InvalidMoviesRequestException(String message) {
+        super(message);
+        this.message = message;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+}
@@ -2,9 +2,20 @@ package com.reactivespring.exception;
 
 public class ReviewsClientException extends RuntimeException{
     private String message;
+    private Integer statusCode;
 
-    public ReviewsClientException(String message) {
+    public ReviewsClientException(String message, Integer statusCode) {
         super(message);
         this.message = message;
+        this.statusCode = statusCode;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+
+    public Integer getStatusCode() {
+        return statusCode;
     }
 }
@@ -0,0 +1,46 @@
+package com.reactivespring.exceptionHandler;
+
+import com.reactivespring.exception.InvalidMoviesRequestException;
+import com.reactivespring.exception.MoviesInfoClientException;
+import com.reactivespring.exception.MoviesInfoServerException;
+import com.reactivespring.exception.ReviewsClientException;
+import com.reactivespring.exception.ReviewsServerException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+@ControllerAdvice
+@Slf4j
+public class GlobalErrorHandler {
+
+    @ExceptionHandler(InvalidMoviesRequestException.class)
+    public ResponseEntity<String> handleInvalidRequest(InvalidMoviesRequestException exception) {
+      log.error("Exception caught in handleInvalidRequest: {} ", exception.getMessage());
+
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exception.getMessage());
+    }
+
+    @ExceptionHandler(MoviesInfoClientException.class)
+    public ResponseEntity<String> handleMoviesInfoClientError(MoviesInfoClientException exception) {
+      log.error("Exception caught in handleMoviesInfoClientError: {} ", exception.getMessage());
+      var status = exception.getStatusCode() != null ? exception.getStatusCode() : HttpStatus.BAD_REQUEST.value();
+
+      return ResponseEntity.status(status).body(exception.getMessage());
+    }
+
+    @ExceptionHandler(ReviewsClientException.class)
+    public ResponseEntity<String> handleReviewsClientError(ReviewsClientException exception) {
+      log.error("Exception caught in handleReviewsClientError: {} ", exception.getMessage());
+
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(exception.getMessage());
+    }
+
+    @ExceptionHandler({MoviesInfoServerException.class, ReviewsServerException.class})
+    public ResponseEntity<String> handleServerError(RuntimeException exception) {
+      log.error("Exception caught in handleServerError: {} ", exception.getMessage());
+
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(exception.getMessage());
+    }
+}
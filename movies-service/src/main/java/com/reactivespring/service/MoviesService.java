@@ -0,0 +1,123 @@
+package com.reactivespring.service;
+
+import com.reactivespring.cache.MovieCache;
+import com.reactivespring.client.MoviesInfoRestClient;
+import com.reactivespring.client.ReviewsRestClient;
+import com.reactivespring.domain.Movie;
+import com.reactivespring.exception.InvalidMoviesRequestException;
+import com.reactivespring.exception.MoviesInfoClientException;
+import com.reactivespring.exception.ReviewsClientException;
+import com.reactivespring.exception.ReviewsServerException;
+import com.reactivespring.util.SingleFlight;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class MoviesService {
+
+    private MoviesInfoRestClient moviesInfoRestClient;
+    private ReviewsRestClient reviewsRestClient;
+    private MovieCache movieCache;
+    private int maxReviews;
+    private int batchMaxIds;
+    private int batchConcurrency;
+    private SingleFlight<String, Movie> inFlightMovies = new SingleFlight<>();
+
+    public MoviesService(MoviesInfoRestClient moviesInfoRestClient,
+                         ReviewsRestClient reviewsRestClient,
+                         MovieCache movieCache,
+                         @Value("${movies.max-reviews:100}") int maxReviews,
+                         @Value("${movies.batch.max-ids:50}") int batchMaxIds,
+                         @Value("${movies.batch.concurrency:8}") int batchConcurrency) {
+        this.moviesInfoRestClient = moviesInfoRestClient;
+        this.reviewsRestClient = reviewsRestClient;
+        this.movieCache = movieCache;
+        this.maxReviews = maxReviews;
+        this.batchMaxIds = batchMaxIds;
+        this.batchConcurrency = batchConcurrency;
+    }
+
+    /* stale entries are served right away and refreshed in the background */
+    public Mono<Movie> getMovieById(String movieId) {
+        return movieCache.lookup(movieId)
+                .map(cachedMovie -> {
+                    if (!movieCache.isFresh(cachedMovie)) {
+                        refreshMovie(movieId);
+                    }
+                    return cachedMovie.getMovie();
+                })
+                .switchIfEmpty(Mono.defer(() -> loadMovie(movieId)));
+    }
+
+    /* concurrent requests for the same id share one pair of downstream calls, refreshes included */
+    private Mono<Movie> loadMovie(String movieId) {
+        return inFlightMovies.execute(movieId, () -> fetchMovie(movieId));
+    }
+
+    private void refreshMovie(String movieId) {
+        loadMovie(movieId)
+                .subscribe(movie -> { }, ex -> log.warn("Refreshing movie {} failed: {}", movieId, ex.getMessage()));
+    }
+
+    /* both calls are subscribed at once, the latency is the slower of the two instead of their sum */
+    private Mono<Movie> fetchMovie(String movieId) {
+        var movieInfo = moviesInfoRestClient.retrieveMovieInfo(movieId);
+        var reviews = reviewsRestClient.retrieveReviews(movieId, maxReviews)
+                .collectList()
+                .map(Optional::of)
+                /* the review service only knows numeric movieInfoIds and rejects the others, */
+                /* such as generated ObjectIds, so a rejected or unknown id simply has no reviews */
+                .onErrorResume(ReviewsClientException.class, ex -> isNoReviews(ex)
+                        ? Mono.just(Optional.of(List.of()))
+                        : Mono.error(ex))
+                /* reviews are optional, an open breaker or a failing review service must not fail the page */
+                .onErrorResume(ReviewsServerException.class, ex -> {
+                    log.warn("Serving movie {} without reviews: {}", movieId, ex.getMessage());
+                    return Mono.just(Optional.empty());
+                });
+        return Mono.zip(movieInfo, reviews)
+                .flatMap(infoAndReviews -> {
+                    var movie = new Movie(infoAndReviews.getT1(), infoAndReviews.getT2().orElse(List.of()));
+                    /* a movie degraded to no reviews is served but not cached */
+                    if (infoAndReviews.getT2().isEmpty()) {
+                        return Mono.just(movie);
+                    }
+                    return movieCache.put(movieId, movie).thenReturn(movie);
+                });
+    }
+
+    /* duplicates are fetched once, results keep the order of the first occurrence and unknown ids are left out */
+    public Flux<Movie> getMoviesByIds(List<String> movieIds) {
+        var distinctIds = movieIds.stream()
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+        if (distinctIds.size() > batchMaxIds) {
+            return Flux.error(new InvalidMoviesRequestException(
+                    "At most " + batchMaxIds + " distinct ids can be requested at once"));
+        }
+        return Flux.fromIterable(distinctIds)
+                .flatMapSequential(movieId -> getMovieById(movieId)
+                        .onErrorResume(MoviesInfoClientException.class, ex -> isNotFound(ex) ? Mono.empty() : Mono.error(ex)),
+                        batchConcurrency);
+    }
+
+    private static boolean isNoReviews(ReviewsClientException exception) {
+        return Integer.valueOf(HttpStatus.BAD_REQUEST.value()).equals(exception.getStatusCode())
+                || Integer.valueOf(HttpStatus.NOT_FOUND.value()).equals(exception.getStatusCode());
+    }
+
+    private static boolean isNotFound(MoviesInfoClientException exception) {
+        return Integer.valueOf(HttpStatus.NOT_FOUND.value()).equals(exception.getStatusCode());
+    }
+}
@@ -0,0 +1,43 @@
+package com.reactivespring.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/* Token bucket shared by every outgoing call: each call deposits ratio tokens, each retry withdraws one */
+/* When a dependency fails for every call the retries stop at ratio * calls instead of multiplying the load */
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long depositPerCall;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    public RetryBudget(double ratio, int minRetries) {
+        if (ratio < 0 || minRetries < 0) {
+            throw new IllegalArgumentException("ratio and minRetries must not be negative");
+        }
+        this.depositPerCall = Math.round(ratio * SCALE);
+        this.maxBalance = Math.max(minRetries, 1) * SCALE;
+        this.balance = new AtomicLong((long) minRetries * SCALE);
+    }
+
+    public void deposit() {
+        balance.accumulateAndGet(depositPerCall, (current, deposit) -> Math.min(maxBalance, current + deposit));
+    }
+
+    public boolean tryWithdraw() {
+        while (true) {
+            var current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    public double available() {
+        return (double) balance.get() / SCALE;
+    }
+}
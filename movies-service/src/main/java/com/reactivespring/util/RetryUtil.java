@@ -0,0 +1,28 @@
+package com.reactivespring.util;
+
+import com.reactivespring.config.RestClientProperties;
+import lombok.extern.slf4j.Slf4j;
+import reactor.util.retry.Retry;
+
+/* Jittered backoff that only fires for the given server exception type and only while the budget allows it */
+@Slf4j
+public class RetryUtil {
+
+    public static Retry retrySpec(RestClientProperties.Retry properties,
+                                  RetryBudget retryBudget,
+                                  Class<? extends RuntimeException> retryOn) {
+        return Retry.backoff(properties.getMaxAttempts(), properties.getMinBackoff())
+                .maxBackoff(properties.getMaxBackoff())
+                .jitter(properties.getJitter())
+                .filter(ex -> retryOn.isInstance(ex) && withdraw(retryBudget))
+                .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> retrySignal.failure());
+    }
+
+    private static boolean withdraw(RetryBudget retryBudget) {
+        var allowed = retryBudget.tryWithdraw();
+        if (!allowed) {
+            log.debug("retry budget exhausted, failing without retry");
+        }
+        return allowed;
+    }
+}
@@ -0,0 +1,34 @@
+package com.reactivespring.util;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/* Concurrent callers with the same key share one upstream call, the entry is dropped once that call terminates */
+/* Callers arriving after termination start a new call, so nothing is cached beyond the lifetime of the call */
+public class SingleFlight<K, V> {
+
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> flight(k, call)));
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private Mono<V> flight(K key, Supplier<Mono<V>> call) {
+        var flight = new AtomicReference<Mono<V>>();
+        /* cache() keeps the upstream running when single callers cancel, and replays to a caller that
+           picked up the entry just before it was removed */
+        Mono<V> shared = Mono.defer(call)
+                .doFinally(signalType -> inFlight.remove(key, flight.get()))
+                .cache();
+        flight.set(shared);
+        return shared;
+    }
+}
@@ -0,0 +1,97 @@
+package com.reactivespring.controller;
+
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.reactivespring.domain.Movie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+
+/* the cache through MoviesService, with a ttl short enough to see entries turn stale */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@AutoConfigureWireMock(port = 0)
+@TestPropertySource(properties = {
+        "restclient.moviesInfoUrl=http://localhost:${wiremock.server.port}/v1/movieInfo",
+        "restclient.reviewsUrl=http://localhost:${wiremock.server.port}/v1/reviews",
+        "movies.cache.enabled=true",
+        "movies.cache.ttl=1s",
+        "movies.cache.stale-ttl=1m",
+        "movies.cache.store=none"
+})
+public class MoviesCacheIntgTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    static String URI = "/v1/movies";
+
+    @BeforeEach
+    void setUp() {
+        WireMock.reset();
+    }
+
+    @Test
+    void staleMovieIsServedWhileItIsRefreshed() throws InterruptedException {
+        stubMovieInfo("Batman Begins");
+        stubFor(get(urlPathEqualTo("/v1/reviews"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("reviews.json")));
+
+        assert retrieveMovieName().equals("Batman Begins");
+        assert retrieveMovieName().equals("Batman Begins");
+        verify(1, getRequestedFor(urlEqualTo("/v1/movieInfo/7")));
+
+        /* stale, and the refresh fails: the old movie is still served */
+        stubFor(get(urlEqualTo("/v1/movieInfo/7"))
+                .willReturn(aResponse().withStatus(500).withBody("MovieInfo Service Unavailable")));
+        Thread.sleep(1_200);
+        assert retrieveMovieName().equals("Batman Begins");
+
+        /* stale, and the refresh succeeds: served right away, replaced once the refresh lands */
+        stubMovieInfo("Batman Begins Remastered");
+        assert retrieveMovieName().equals("Batman Begins");
+        var deadline = System.currentTimeMillis() + 5_000;
+        var name = retrieveMovieName();
+        while (!name.equals("Batman Begins Remastered") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            name = retrieveMovieName();
+        }
+        assert name.equals("Batman Begins Remastered");
+    }
+
+    private String retrieveMovieName() {
+        var movie = webTestClient
+                .get()
+                .uri(URI + "/{id}", "7")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(Movie.class)
+                .returnResult()
+                .getResponseBody();
+        assert movie != null;
+        return movie.getMovieInfo().getName();
+    }
+
+    private static void stubMovieInfo(String name) {
+        stubFor(get(urlEqualTo("/v1/movieInfo/7"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"movieInfoId\":\"7\",\"name\":\"" + name + "\",\"year\":2005,"
+                                + "\"cast\":[\"Christian Bale\"],\"releaseDate\":\"2005-06-15\"}")));
+    }
+}
@@ -1,4 +1,216 @@
 package com.reactivespring.controller;
 
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.reactivespring.domain.Movie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@AutoConfigureWireMock(port = 8084)
+@TestPropertySource(properties = {
+        "restclient.moviesInfoUrl=http://localhost:8084/v1/movieInfo",
+        "restclient.reviewsUrl=http://localhost:8084/v1/reviews",
+        /* every test stubs its own responses for the same ids */
+        "movies.cache.enabled=false"
+})
 public class MoviesControllerIntgTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    static String URI = "/v1/movies";
+
+    @BeforeEach
+    void setUp() {
+        WireMock.reset();
+    }
+
+    @Test
+    void retrieveMovieById() {
+        stubMovieInfo("1");
+        stubReviews("1");
+
+        webTestClient
+                .get()
+                .uri(URI + "/{id}", "1")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(Movie.class)
+                .consumeWith(movieEntityExchangeResult -> {
+                    var movie = movieEntityExchangeResult.getResponseBody();
+                    assert movie != null;
+                    assert movie.getMovieInfo().getName().equals("Batman Begins");
+                    assert movie.getMovieInfo().getReleaseDate().equals(LocalDate.parse("2005-06-15"));
+                    assert movie.getReviewList().size() == 2;
+                });
+
+        /* movies.max-reviews is passed on, the review service stops there */
+        verify(1, getRequestedFor(urlPathEqualTo("/v1/reviews"))
+                .withQueryParam("movieInfoId", equalTo("1"))
+                .withQueryParam("limit", equalTo("100")));
+    }
+
+    @Test
+    void retrieveMovieById_404() {
+        stubFor(get(urlEqualTo("/v1/movieInfo/1"))
+                .willReturn(aResponse().withStatus(404)));
+        stubReviews("1");
+
+        webTestClient
+                .get()
+                .uri(URI + "/{id}", "1")
+                .exchange()
+                .expectStatus()
+                .isNotFound()
+                .expectBody(String.class)
+                .isEqualTo("There is no MovieInfo available for the passed in Id : 1");
+
+        verify(1, getRequestedFor(urlEqualTo("/v1/movieInfo/1")));
+    }
+
+    @Test
+    void retrieveMovieById_5xx_retried() {
+        stubFor(get(urlEqualTo("/v1/movieInfo/1"))
+                .willReturn(aResponse().withStatus(500).withBody("MovieInfo Service Unavailable")));
+        stubReviews("1");
+
+        webTestClient
+                .get()
+                .uri(URI + "/{id}", "1")
+                .exchange()
+                .expectStatus()
+                .is5xxServerError()
+                .expectBody(String.class)
+                .isEqualTo("Server Exception in MoviesInfoService MovieInfo Service Unavailable");
+
+        /* the first call plus restclient.retry.maxAttempts */
+        verify(3, getRequestedFor(urlEqualTo("/v1/movieInfo/1")));
+    }
+
+    @Test
+    void retrieveMovieById_reviews5xx_degradesToNoReviews() {
+        stubMovieInfo("1");
+        stubFor(get(urlPathEqualTo("/v1/reviews"))
+                .willReturn(aResponse().withStatus(500).withBody("Review Service Unavailable")));
+
+        webTestClient
+                .get()
+                .uri(URI + "/{id}", "1")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(Movie.class)
+                .consumeWith(movieEntityExchangeResult -> {
+                    var movie = movieEntityExchangeResult.getResponseBody();
+                    assert movie != null;
+                    assert movie.getMovieInfo().getName().equals("Batman Begins");
+                    assert movie.getReviewList().isEmpty();
+                });
+    }
+
+    @Test
+    void retrieveMoviesByIds_deduplicatesAndSkipsUnknown() {
+        stubMovieInfo("1");
+        stubReviews("1");
+        stubFor(get(urlEqualTo("/v1/movieInfo/2"))
+                .willReturn(aResponse().withStatus(404)));
+        stubReviews("2");
+
+        webTestClient
+                .get()
+                .uri(URI + "?ids=1,2,1")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(Movie.class)
+                .hasSize(1);
+
+        verify(1, getRequestedFor(urlEqualTo("/v1/movieInfo/1")));
+    }
+
+    @Test
+    void retrieveMovieById_objectIdHasNoReviews() {
+        var movieInfoId = "5f8d0d55b54764421b7156c3";
+        stubMovieInfo(movieInfoId);
+        stubFor(get(urlPathEqualTo("/v1/reviews"))
+                .withQueryParam("movieInfoId", equalTo(movieInfoId))
+                .willReturn(aResponse().withStatus(400).withBody("movieInfoId must be a number: " + movieInfoId)));
+
+        webTestClient
+                .get()
+                .uri(URI + "/{id}", movieInfoId)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(Movie.class)
+                .consumeWith(movieEntityExchangeResult -> {
+                    var movie = movieEntityExchangeResult.getResponseBody();
+                    assert movie != null;
+                    assert movie.getMovieInfo().getName().equals("Batman Begins");
+                    assert movie.getReviewList().isEmpty();
+                });
+
+        webTestClient
+                .get()
+                .uri(URI + "?ids=" + movieInfoId)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(Movie.class)
+                .hasSize(1);
+    }
+
+    @Test
+    void retrieveMoviesByIds_tooManyIds() {
+        var ids = IntStream.rangeClosed(1, 51)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(","));
+
+        webTestClient
+                .get()
+                .uri(URI + "?ids=" + ids)
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("At most 50 distinct ids can be requested at once");
+
+        verify(0, getRequestedFor(urlPathEqualTo("/v1/reviews")));
+    }
+
+    private static void stubMovieInfo(String movieInfoId) {
+        stubFor(get(urlEqualTo("/v1/movieInfo/" + movieInfoId))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("movieinfo.json")));
+    }
+
+    private static void stubReviews(String movieInfoId) {
+        stubFor(get(urlPathEqualTo("/v1/reviews"))
+                .withQueryParam("movieInfoId", equalTo(movieInfoId))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBodyFile("reviews.json")));
+    }
 }
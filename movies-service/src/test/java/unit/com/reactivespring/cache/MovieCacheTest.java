@@ -0,0 +1,122 @@
+package com.reactivespring.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reactivespring.config.MovieCacheProperties;
+import com.reactivespring.domain.Movie;
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.Review;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovieCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    private final Movie movie = new Movie(
+            new MovieInfo("1", "Batman Begins", 2005, List.of("Christian Bale"), LocalDate.parse("2005-06-15")),
+            List.of(new Review("1", 1L, "Awesome Movie", 9.0)));
+
+    @Test
+    void entryTurnsStaleThenExpires() {
+        var movieCache = new MovieCache(properties(), new NoOpMovieCacheStore(), clock);
+        movieCache.put("1", movie).block();
+
+        StepVerifier.create(movieCache.lookup("1"))
+                .assertNext(cachedMovie -> assertTrue(movieCache.isFresh(cachedMovie)))
+                .verifyComplete();
+
+        clock.advance(Duration.ofSeconds(31));
+        StepVerifier.create(movieCache.lookup("1"))
+                .assertNext(cachedMovie -> assertFalse(movieCache.isFresh(cachedMovie)))
+                .verifyComplete();
+
+        clock.advance(Duration.ofMinutes(5));
+        StepVerifier.create(movieCache.lookup("1"))
+                .verifyComplete();
+    }
+
+    @Test
+    void entryFromTheStoreKeepsItsAgeLocally(@TempDir Path directory) {
+        var objectMapper = new ObjectMapper().findAndRegisterModules();
+        var properties = properties();
+        new MovieCache(properties, new FileMovieCacheStore(directory, objectMapper), clock)
+                .put("1", movie)
+                .block();
+
+        clock.advance(Duration.ofMinutes(5));
+        var movieCache = new MovieCache(properties, new FileMovieCacheStore(directory, objectMapper), clock);
+        StepVerifier.create(movieCache.lookup("1"))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        /* ttl + staleTtl after the original write, not after the copy into this instance */
+        clock.advance(Duration.ofSeconds(31));
+        StepVerifier.create(movieCache.lookup("1"))
+                .verifyComplete();
+    }
+
+    @Test
+    void secondTierFillsTheLocalCache(@TempDir Path directory) {
+        var objectMapper = new ObjectMapper().findAndRegisterModules();
+        var properties = properties();
+        new MovieCache(properties, new FileMovieCacheStore(directory, objectMapper), clock)
+                .put("1", movie)
+                .block();
+
+        /* a second instance only shares the file store */
+        var movieCache = new MovieCache(properties, new FileMovieCacheStore(directory, objectMapper), clock);
+        StepVerifier.create(movieCache.lookup("1"))
+                .assertNext(cachedMovie -> assertEquals(movie, cachedMovie.getMovie()))
+                .verifyComplete();
+
+        clock.advance(Duration.ofMinutes(6));
+        var lateInstance = new MovieCache(properties, new FileMovieCacheStore(directory, objectMapper), clock);
+        StepVerifier.create(lateInstance.lookup("1"))
+                .verifyComplete();
+    }
+
+    private static MovieCacheProperties properties() {
+        var properties = new MovieCacheProperties();
+        properties.setTtl(Duration.ofSeconds(30));
+        properties.setStaleTtl(Duration.ofMinutes(5));
+        return properties;
+    }
+
+    static class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2021-08-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
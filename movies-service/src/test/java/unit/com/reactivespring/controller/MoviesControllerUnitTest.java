@@ -1,4 +1,103 @@
 package com.reactivespring.controller;
 
+import com.reactivespring.domain.Movie;
+import com.reactivespring.domain.MovieInfo;
+import com.reactivespring.domain.Review;
+import com.reactivespring.exception.MoviesInfoClientException;
+import com.reactivespring.exception.ReviewsServerException;
+import com.reactivespring.service.MoviesService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(controllers = MoviesController.class)
+@AutoConfigureWebTestClient
 public class MoviesControllerUnitTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private MoviesService moviesServiceMock;
+
+    static String URI = "/v1/movies";
+
+    @Test
+    void retrieveMovieById() {
+        var movieInfo = new MovieInfo("1", "Batman Begins", 2005,
+                List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+        var reviews = List.of(new Review("1", 1L, "Awesome Movie", 9.0));
+
+        when(moviesServiceMock.getMovieById(anyString())).thenReturn(Mono.just(new Movie(movieInfo, reviews)));
+
+        webTestClient
+                .get()
+                .uri(URI + "/{id}", "1")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(Movie.class)
+                .consumeWith(movieEntityExchangeResult -> {
+                    var movie = movieEntityExchangeResult.getResponseBody();
+                    assert movie != null;
+                    assert movie.getMovieInfo().getName().equals("Batman Begins");
+                    assert movie.getReviewList().size() == 1;
+                });
+    }
+
+    @Test
+    void retrieveMovieById_notFound() {
+        when(moviesServiceMock.getMovieById(anyString()))
+                .thenReturn(Mono.error(new MoviesInfoClientException("There is no MovieInfo available for the passed in Id : 1", 404)));
+
+        webTestClient
+                .get()
+                .uri(URI + "/{id}", "1")
+                .exchange()
+                .expectStatus()
+                .isNotFound()
+                .expectBody(String.class)
+                .isEqualTo("There is no MovieInfo available for the passed in Id : 1");
+    }
+
+    @Test
+    void retrieveMovieById_serverError() {
+        when(moviesServiceMock.getMovieById(anyString()))
+                .thenReturn(Mono.error(new ReviewsServerException("Server Exception in ReviewsService")));
+
+        webTestClient
+                .get()
+                .uri(URI + "/{id}", "1")
+                .exchange()
+                .expectStatus()
+                .is5xxServerError();
+    }
+
+    @Test
+    void retrieveMoviesByIds() {
+        var movie = new Movie(new MovieInfo("1", "Batman Begins", 2005, List.of("Christian Bale"), null), List.of());
+
+        when(moviesServiceMock.getMoviesByIds(anyList())).thenReturn(Flux.just(movie));
+
+        webTestClient
+                .get()
+                .uri(URI + "?ids=1,1")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(Movie.class)
+                .hasSize(1);
+    }
 }
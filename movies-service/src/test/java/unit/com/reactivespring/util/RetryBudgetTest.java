@@ -0,0 +1,44 @@
+package com.reactivespring.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBudgetTest {
+
+    @Test
+    void minRetriesAreAvailableUpFront() {
+        var retryBudget = new RetryBudget(0.2, 2);
+
+        assertTrue(retryBudget.tryWithdraw());
+        assertTrue(retryBudget.tryWithdraw());
+        assertFalse(retryBudget.tryWithdraw());
+    }
+
+    @Test
+    void depositsAllowOneRetryPerFiveCalls() {
+        var retryBudget = new RetryBudget(0.2, 0);
+
+        for (int i = 0; i < 4; i++) {
+            retryBudget.deposit();
+        }
+        assertFalse(retryBudget.tryWithdraw());
+
+        retryBudget.deposit();
+        assertTrue(retryBudget.tryWithdraw());
+        assertFalse(retryBudget.tryWithdraw());
+    }
+
+    @Test
+    void balanceIsCapped() {
+        var retryBudget = new RetryBudget(1.0, 3);
+
+        for (int i = 0; i < 100; i++) {
+            retryBudget.deposit();
+        }
+
+        assertEquals(3.0, retryBudget.available());
+    }
+}
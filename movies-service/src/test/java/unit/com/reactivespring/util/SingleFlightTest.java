@@ -0,0 +1,63 @@
+package com.reactivespring.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallersShareOneCall() {
+        var singleFlight = new SingleFlight<String, String>();
+        var calls = new AtomicInteger();
+        var upstream = Sinks.<String>one();
+
+        var callers = Flux.range(0, 100)
+                .flatMap(i -> singleFlight.execute("1", () -> {
+                    calls.incrementAndGet();
+                    return upstream.asMono();
+                }))
+                .collectList();
+
+        StepVerifier.create(callers)
+                .then(() -> {
+                    assertEquals(1, singleFlight.inFlight());
+                    upstream.tryEmitValue("Batman Begins");
+                })
+                .assertNext(results -> assertEquals(100, results.size()))
+                .verifyComplete();
+
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void entryIsDroppedAfterCompletion() {
+        var singleFlight = new SingleFlight<String, Integer>();
+        var calls = new AtomicInteger();
+
+        StepVerifier.create(singleFlight.execute("1", () -> Mono.fromCallable(calls::incrementAndGet)))
+                .expectNext(1)
+                .verifyComplete();
+        StepVerifier.create(singleFlight.execute("1", () -> Mono.fromCallable(calls::incrementAndGet)))
+                .expectNext(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void errorsAreSharedAndNotKept() {
+        var singleFlight = new SingleFlight<String, Integer>();
+
+        StepVerifier.create(singleFlight.execute("1", () -> Mono.error(new IllegalStateException("boom"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        assertEquals(0, singleFlight.inFlight());
+    }
+}
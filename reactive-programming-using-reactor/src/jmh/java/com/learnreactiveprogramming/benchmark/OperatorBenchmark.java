@@ -0,0 +1,100 @@
+package com.learnreactiveprogramming.benchmark;
+
+import com.learnreactiveprogramming.service.FluxAndMonoGeneratorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/* The operator shapes used in FluxAndMonoGeneratorService, run over a realistic number of names */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OperatorBenchmark {
+
+    @Param({"1000", "100000"})
+    int elements;
+
+    FluxAndMonoGeneratorService fluxAndMonoGeneratorService = new FluxAndMonoGeneratorService();
+
+    List<String> names;
+
+    @Setup
+    public void setUp() {
+        names = IntStream.range(0, elements)
+                .mapToObj(i -> "name-" + i)
+                .collect(Collectors.toList());
+    }
+
+    /* only the flatMap runs are multiplied by the concurrency levels */
+    @State(Scope.Benchmark)
+    public static class Concurrency {
+
+        @Param({"1", "32", "256"})
+        int concurrency;
+    }
+
+    @Benchmark
+    public void flatMap(Concurrency concurrency, Blackhole blackhole) {
+        Flux.fromIterable(names)
+                .flatMap(fluxAndMonoGeneratorService::splitString, concurrency.concurrency)
+                .doOnNext(blackhole::consume)
+                .blockLast();
+    }
+
+    /* concatMap is sequential by definition, its second argument is only a prefetch so the default is kept */
+    @Benchmark
+    public void concatMap(Blackhole blackhole) {
+        Flux.fromIterable(names)
+                .concatMap(fluxAndMonoGeneratorService::splitString)
+                .doOnNext(blackhole::consume)
+                .blockLast();
+    }
+
+    @Benchmark
+    public void merge(Blackhole blackhole) {
+        var half = names.size() / 2;
+        Flux.merge(Flux.fromIterable(names.subList(0, half)), Flux.fromIterable(names.subList(half, names.size())))
+                .doOnNext(blackhole::consume)
+                .blockLast();
+    }
+
+    @Benchmark
+    public void concat(Blackhole blackhole) {
+        var half = names.size() / 2;
+        Flux.concat(Flux.fromIterable(names.subList(0, half)), Flux.fromIterable(names.subList(half, names.size())))
+                .doOnNext(blackhole::consume)
+                .blockLast();
+    }
+
+    @Benchmark
+    public void zip(Blackhole blackhole) {
+        Flux.zip(Flux.fromIterable(names), Flux.range(0, elements), Flux.fromIterable(names))
+                .map(t3 -> t3.getT1() + t3.getT2() + t3.getT3())
+                .doOnNext(blackhole::consume)
+                .blockLast();
+    }
+
+    @Benchmark
+    public void transform(Blackhole blackhole) {
+        Function<Flux<String>, Flux<String>> filterMap = name -> name.map(String::toLowerCase)
+                .filter(str -> str.length() > 8);
+
+        Flux.fromIterable(names)
+                .transform(filterMap)
+                .doOnNext(blackhole::consume)
+                .blockLast();
+    }
+}
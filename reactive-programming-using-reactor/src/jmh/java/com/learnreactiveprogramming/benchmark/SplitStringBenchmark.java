@@ -0,0 +1,58 @@
+package com.learnreactiveprogramming.benchmark;
+
+import com.learnreactiveprogramming.publisher.CharacterFlux;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/* split("") compiles a regex and allocates the whole array up front, the other two emit lazily */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SplitStringBenchmark {
+
+    @Param({"8", "64", "4096"})
+    int length;
+
+    String name;
+
+    @Setup
+    public void setUp() {
+        var builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        name = builder.toString();
+    }
+
+    @Benchmark
+    public void splitRegex(Blackhole blackhole) {
+        Flux.fromArray(name.split(""))
+                .doOnNext(blackhole::consume)
+                .blockLast();
+    }
+
+    @Benchmark
+    public void splitCharAt(Blackhole blackhole) {
+        Flux.range(0, name.length())
+                .map(i -> String.valueOf(name.charAt(i)))
+                .doOnNext(blackhole::consume)
+                .blockLast();
+    }
+
+    @Benchmark
+    public void splitCharacterFlux(Blackhole blackhole) {
+        CharacterFlux.fromString(name)
+                .doOnNext(blackhole::consume)
+                .blockLast();
+    }
+}
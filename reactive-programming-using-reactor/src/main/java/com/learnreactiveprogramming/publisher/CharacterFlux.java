@@ -0,0 +1,156 @@
+package com.learnreactiveprogramming.publisher;
+
+import reactor.core.CoreSubscriber;
+import reactor.core.Fuseable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Emits the characters of a string one code point at a time, as one character strings.
+ * Nothing is copied up front: each code point is read from the input when it is requested,
+ * and characters up to U+00FF come from a shared table, so ASCII input allocates nothing per element.
+ * Supports synchronous fusion, so fused operators such as map and filter poll it directly.
+ */
+public final class CharacterFlux extends Flux<String> implements Fuseable {
+
+    private static final String[] LATIN_1 = new String[256];
+
+    static {
+        for (int i = 0; i < LATIN_1.length; i++) {
+            LATIN_1[i] = String.valueOf((char) i);
+        }
+    }
+
+    private final CharSequence text;
+
+    private CharacterFlux(CharSequence text) {
+        this.text = text;
+    }
+
+    /* unlike text.split(""), an empty text completes without emitting anything */
+    public static Flux<String> fromString(CharSequence text) {
+        return onAssembly(new CharacterFlux(text));
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super String> actual) {
+        if (text.length() == 0) {
+            Operators.complete(actual);
+            return;
+        }
+        actual.onSubscribe(new CharacterSubscription(actual, text));
+    }
+
+    static String characterOf(int codePoint) {
+        return codePoint < LATIN_1.length ? LATIN_1[codePoint] : new String(Character.toChars(codePoint));
+    }
+
+    static final class CharacterSubscription implements QueueSubscription<String> {
+
+        final CoreSubscriber<? super String> actual;
+        final CharSequence text;
+        final int length;
+
+        int index;
+        volatile boolean cancelled;
+
+        volatile long requested;
+        static final AtomicLongFieldUpdater<CharacterSubscription> REQUESTED =
+                AtomicLongFieldUpdater.newUpdater(CharacterSubscription.class, "requested");
+
+        CharacterSubscription(CoreSubscriber<? super String> actual, CharSequence text) {
+            this.actual = actual;
+            this.text = text;
+            this.length = text.length();
+        }
+
+        String next() {
+            int codePoint = Character.codePointAt(text, index);
+            index += Character.charCount(codePoint);
+            return characterOf(codePoint);
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n) && Operators.addCap(REQUESTED, this, n) == 0) {
+                if (n == Long.MAX_VALUE) {
+                    fastPath();
+                } else {
+                    slowPath(n);
+                }
+            }
+        }
+
+        void fastPath() {
+            while (index < length) {
+                if (cancelled) {
+                    return;
+                }
+                actual.onNext(next());
+            }
+            if (!cancelled) {
+                actual.onComplete();
+            }
+        }
+
+        void slowPath(long n) {
+            long emitted = 0;
+            for (;;) {
+                while (emitted != n && index < length) {
+                    if (cancelled) {
+                        return;
+                    }
+                    actual.onNext(next());
+                    emitted++;
+                }
+                if (cancelled) {
+                    return;
+                }
+                if (index == length) {
+                    actual.onComplete();
+                    return;
+                }
+                n = requested;
+                if (n == emitted) {
+                    n = REQUESTED.addAndGet(this, -emitted);
+                    if (n == 0) {
+                        return;
+                    }
+                    emitted = 0;
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public int requestFusion(int requestedMode) {
+            return (requestedMode & SYNC) != 0 ? SYNC : NONE;
+        }
+
+        @Override
+        public String poll() {
+            return index < length ? next() : null;
+        }
+
+        @Override
+        public int size() {
+            return length - index;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return index == length;
+        }
+
+        @Override
+        public void clear() {
+            index = length;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.learnreactiveprogramming.service;
 
+import com.learnreactiveprogramming.publisher.CharacterFlux;
+import com.learnreactiveprogramming.util.SignalLogging;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -39,8 +41,7 @@ public class FluxAndMonoGeneratorService {
     }
 
     public Flux<String> splitString(String name) {
-        var charArray = name.split("");
-        return Flux.fromArray(charArray);
+        return CharacterFlux.fromString(name);
     }
 
 
@@ -53,23 +54,22 @@ public class FluxAndMonoGeneratorService {
     public Flux<String> getCharsOfNamesV2() {
         return Mono.just("Michael")
                 .flatMapMany(this::splitString)
-                .log();
+                .transform(SignalLogging.sampled("getCharsOfNamesV2", 100));
     }
 
     public Flux<String> splitStringDelayed(String name) {
-        var charArray = name.split("");
         Random random = new Random();
         int delay = random.nextInt(1000);
-        return Flux.fromArray(charArray)
+        return CharacterFlux.fromString(name)
                 .delayElements(Duration.ofMillis(delay))
-                .log();
+                .transform(SignalLogging.sampled("splitStringDelayed", 100));
     }
 
     public Flux<String> getCharsOfNamesInOrder() {
         return Flux.fromIterable(getNames())
                 .filter(str -> str.length() < 3)
                 .concatMap(str -> splitStringDelayed(str))
-                .log();
+                .transform(SignalLogging.sampled("getCharsOfNamesInOrder", 100));
     }
 
     public Flux<String> useTransform(int length) {
@@ -84,7 +84,7 @@ public class FluxAndMonoGeneratorService {
                 .transform(filterMap)
                 //.defaultIfEmpty("default value")
                 .switchIfEmpty(ifEmptyFlux)
-                .log();
+                .transform(SignalLogging.sampled("useTransform", 100));
     }
 
     public Flux<String> exploreConcat() {
@@ -108,7 +108,7 @@ public class FluxAndMonoGeneratorService {
                 .delayElements(Duration.ofMillis(120));
 
         return Flux.merge(xyzFlux, asdFlux)
-                .log();
+                .transform(SignalLogging.sampled("exploreMerge", 100));
     }
 
     public Flux<String> exploreZip() {
@@ -118,7 +118,7 @@ public class FluxAndMonoGeneratorService {
 
         return Flux.zip(abcFlux, flux123, xyzFlux)
                 .map(t3 -> t3.getT1() + t3.getT2() + t3.getT3())
-                .log();
+                .transform(SignalLogging.sampled("exploreZip", 100));
     }
 
     public Mono<String> exploreZipWith() {
@@ -127,7 +127,7 @@ public class FluxAndMonoGeneratorService {
 
         return aMono.zipWith(bMono)
                 .map(t2 -> t2.getT1() + t2.getT2())
-                .log();
+                .transform(SignalLogging.sampledMono("exploreZipWith", 100));
     }
 
     public static void main(String[] args) {
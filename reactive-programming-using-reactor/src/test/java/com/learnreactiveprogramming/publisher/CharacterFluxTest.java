@@ -0,0 +1,49 @@
+package com.learnreactiveprogramming.publisher;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Fuseable;
+import reactor.test.StepVerifier;
+
+class CharacterFluxTest {
+
+    @Test
+    void fromString() {
+        StepVerifier.create(CharacterFlux.fromString("Rick"))
+                .expectNext("R", "i", "c", "k")
+                .verifyComplete();
+    }
+
+    @Test
+    void fromStringEmpty() {
+        StepVerifier.create(CharacterFlux.fromString(""))
+                .verifyComplete();
+    }
+
+    @Test
+    void fromStringSurrogatePair() {
+        StepVerifier.create(CharacterFlux.fromString("a\uD83D\uDE00"))
+                .expectNext("a", "\uD83D\uDE00")
+                .verifyComplete();
+    }
+
+    @Test
+    void fromStringBackpressure() {
+        StepVerifier.create(CharacterFlux.fromString("Rick"), 0)
+                .expectSubscription()
+                .thenRequest(1)
+                .expectNext("R")
+                .thenRequest(2)
+                .expectNext("i", "c")
+                .thenRequest(1)
+                .expectNext("k")
+                .verifyComplete();
+    }
+
+    @Test
+    void fromStringSyncFusion() {
+        StepVerifier.create(CharacterFlux.fromString("Rick").map(String::toUpperCase))
+                .expectFusion(Fuseable.SYNC)
+                .expectNext("R", "I", "C", "K")
+                .verifyComplete();
+    }
+}
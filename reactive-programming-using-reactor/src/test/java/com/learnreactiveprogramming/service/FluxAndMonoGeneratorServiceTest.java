@@ -48,4 +48,17 @@ class FluxAndMonoGeneratorServiceTest {
                 .expectNext("asdf", "rick")
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCharsOfNames() {
+        //given
+
+        //when
+        var charFlux = fluxAndMonoGeneratorService.getCharsOfNames();
+
+        //then
+        StepVerifier.create(charFlux)
+                .expectNext("R", "i", "c", "k")
+                .verifyComplete();
+    }
+}